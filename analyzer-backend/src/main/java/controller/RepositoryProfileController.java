@@ -2,14 +2,29 @@ package com.myproject.analyzerbackend.controller;
 
 import com.myproject.analyzerbackend.domain.RepositoryProfile;
 import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import com.myproject.analyzerbackend.domain.TopicFacet;
+import com.myproject.analyzerbackend.service.BackendGuard;
+import com.myproject.analyzerbackend.service.BulkImportResult;
+import com.myproject.analyzerbackend.service.BulkImportService;
 import com.myproject.analyzerbackend.service.CrawlingService;
+import com.myproject.analyzerbackend.service.GpuWork;
+import com.myproject.analyzerbackend.service.GpuWorkScheduler;
+import com.myproject.analyzerbackend.service.ProfileQueryCache;
+import com.myproject.analyzerbackend.service.ReplicaRoutingDataSource;
+import com.myproject.analyzerbackend.service.SemanticSearchService;
+import com.myproject.analyzerbackend.service.TopicFacetService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +39,31 @@ public class RepositoryProfileController {
     @Autowired
     private CrawlingService crawlingService;
 
+    @Autowired
+    private TopicFacetService topicFacetService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private GpuWorkScheduler gpuWorkScheduler;
+
+    @Autowired
+    private List<BackendGuard> backendGuards;
+
+    @Autowired
+    private SemanticSearchService semanticSearchService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private ProfileQueryCache profileQueryCache;
+
     // 모든 프로젝트 조회
     @GetMapping
     public ResponseEntity<Page<RepositoryProfile>> getAllProfiles(Pageable pageable) {
-        Page<RepositoryProfile> profiles = repositoryProfileRepository.findAll(pageable);
+        Page<RepositoryProfile> profiles = profileQueryCache.findAll(pageable);
         return ResponseEntity.ok(profiles);
     }
 
@@ -43,23 +79,49 @@ public class RepositoryProfileController {
         return ResponseEntity.ok(profiles);
     }
 
+    // 의미 검색 (임베딩 유사도 순)
+    @GetMapping("/semantic")
+    public ResponseEntity<List<RepositoryProfile>> semanticSearch(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(semanticSearchService.search(q, Math.min(size, 100)));
+    }
+
+    // 관련 프로젝트
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RepositoryProfile>> getRelatedProfiles(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return semanticSearchService.related(id, Math.min(size, 100))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     // 주제별 필터링
     @GetMapping("/filter")
     public ResponseEntity<Page<RepositoryProfile>> filterProfilesByTopic(
             @RequestParam String topic,
             Pageable pageable) {
 
-        Page<RepositoryProfile> profiles = repositoryProfileRepository.findByTopic(topic, pageable);
+        Page<RepositoryProfile> profiles = profileQueryCache.findByTopic(topic, pageable);
         return ResponseEntity.ok(profiles);
     }
 
     // 사이드바용 토픽 목록 조회
     @GetMapping("/topics")
     public ResponseEntity<List<String>> getDistinctTopics() {
-        List<String> topics = repositoryProfileRepository.findDistinctTopics();
+        List<String> topics = topicFacetService.getTopics();
         return ResponseEntity.ok(topics);
     }
 
+    // 사이드바용 토픽 패싯 조회 (토픽별 개수 + 최신 시각, 메모리에서 응답)
+    @GetMapping("/topics/facets")
+    public ResponseEntity<List<TopicFacet>> getTopicFacets() {
+        return ResponseEntity.ok(topicFacetService.getFacets());
+    }
+
     // 즉시 분석 요청
     @PostMapping("/analyze")
     public ResponseEntity<Map<String, String>> requestImmediateAnalysis(@RequestBody Map<String, String> payload) {
@@ -71,24 +133,83 @@ public class RepositoryProfileController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("message", "분석 요청이 접수되었습니다. 잠시 후 확인해주세요."));
     }
 
+    // 이미지 재생성 요청 (크롤링보다 우선 처리)
+    @PostMapping("/{id}/regenerate")
+    public ResponseEntity<Map<String, String>> requestImageRegeneration(@PathVariable Long id) {
+        if (!repositoryProfileRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        crawlingService.regenerateImageForProfile(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("message", "이미지 재생성 요청이 접수되었습니다."));
+    }
+
+    // 대기 중인 이미지 재생성 취소
+    @DeleteMapping("/{id}/regenerate")
+    public ResponseEntity<Map<String, Integer>> cancelImageRegeneration(@PathVariable Long id) {
+        int cancelled = gpuWorkScheduler.cancel(GpuWork.regenerateTag(id));
+        return ResponseEntity.ok(Map.of("cancelled", cancelled));
+    }
+
+    // Ollama / ComfyUI 작업 큐 상태
+    @GetMapping("/work-queue")
+    public ResponseEntity<List<Map<String, Object>>> getWorkQueueStats() {
+        return ResponseEntity.ok(gpuWorkScheduler.stats());
+    }
+
+    // 외부 백엔드 보호 상태 (서킷 / 동시 실행 한도 / 타임아웃 / 차단 건수)
+    @GetMapping("/backends")
+    public ResponseEntity<List<Map<String, Object>>> getBackendStats() {
+        return ResponseEntity.ok(backendGuards.stream().map(BackendGuard::stats).toList());
+    }
+
+    // DB 커넥션 풀 상태 (primary / 읽기 레플리카별 활성 / 대기 / 복제 지연)
+    @GetMapping("/datasources")
+    public ResponseEntity<List<Map<String, Object>>> getDataSourceStats() {
+        return ResponseEntity.ok(replicaRoutingDataSource.stats());
+    }
+
+    // 조회 결과 캐시 / 엔티티 2차 캐시 적중률
+    @GetMapping("/cache")
+    public ResponseEntity<List<Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(profileQueryCache.stats());
+    }
+
+    // 대량 가져오기 (파일 업로드: NDJSON / CSV / 한 줄에 URL 하나)
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkImportResult> importRepositoriesFromFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkImportService.importStream(inputStream));
+        }
+    }
+
+    // 대량 가져오기 (본문 스트리밍)
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<BulkImportResult> importRepositoriesFromBody(InputStream body) throws IOException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkImportService.importStream(body));
+    }
+
     // 내 보관소(즐겨찾기) 조회
     @PostMapping("/favorites")
     public ResponseEntity<Page<RepositoryProfile>> getFavoriteProfiles(
             @RequestBody List<Long> favoriteIds,
             Pageable pageable) {
 
-        Page<RepositoryProfile> profiles = repositoryProfileRepository.findByIdIn(favoriteIds, pageable);
+        Page<RepositoryProfile> profiles = profileQueryCache.findByIdIn(favoriteIds, pageable);
         return ResponseEntity.ok(profiles);
     }
 
     // 프로젝트 삭제
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProfile(@PathVariable Long id) {
+        gpuWorkScheduler.cancel(GpuWork.regenerateTag(id));
         try {
-            repositoryProfileRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
+            if (!crawlingService.deleteProfile(id)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            // 읽은 뒤 다른 요청/노드가 먼저 삭제한 경우
             return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.myproject.analyzerbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "change_version")
+public class ChangeVersion {
+
+    @Id
+    private String name; // 예: "profiles"
+
+    @Column(nullable = false)
+    private long version; // 커밋된 변경마다 1씩 증가
+
+}
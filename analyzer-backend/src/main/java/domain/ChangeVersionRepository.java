@@ -0,0 +1,20 @@
+package com.myproject.analyzerbackend.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeVersionRepository extends JpaRepository<ChangeVersion, String> {
+
+    // 행 잠금이 커밋까지 유지되므로 동시에 올린 버전끼리 겹치지 않음
+    @Modifying
+    @Query(value = "INSERT INTO change_version (name, version) VALUES (:name, 1) " +
+            "ON CONFLICT (name) DO UPDATE SET version = change_version.version + 1", nativeQuery = true)
+    void increment(@Param("name") String name);
+
+    @Query(value = "SELECT version FROM change_version WHERE name = :name", nativeQuery = true)
+    Long findVersion(@Param("name") String name);
+}
@@ -0,0 +1,25 @@
+package com.myproject.analyzerbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "crawl_lease")
+public class CrawlLease {
+
+    @Id
+    private String name; // 예: "cleanup", "crawl:Docker"
+
+    @Column(nullable = false)
+    private String ownerId; // 임대를 가진 노드 ID
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt; // 만료 시각 (DB 시계 기준)
+
+}
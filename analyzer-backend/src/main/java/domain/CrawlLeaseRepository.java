@@ -0,0 +1,29 @@
+package com.myproject.analyzerbackend.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CrawlLeaseRepository extends JpaRepository<CrawlLease, String> {
+
+    // 비어 있거나 만료된 임대만 획득 (재진입 불가, ownerId는 획득마다 새 토큰) -> 1이면 성공
+    @Modifying
+    @Query(value = "INSERT INTO crawl_lease (name, owner_id, expires_at) " +
+            "VALUES (:name, :ownerId, now() + make_interval(secs => :ttlSeconds)) " +
+            "ON CONFLICT (name) DO UPDATE SET owner_id = EXCLUDED.owner_id, expires_at = EXCLUDED.expires_at " +
+            "WHERE crawl_lease.expires_at < now()", nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("ownerId") String ownerId, @Param("ttlSeconds") long ttlSeconds);
+
+    // 아직 내 토큰으로 잡혀 있는 임대만 연장 -> 0이면 이미 만료되어 다른 쪽이 가져감
+    @Modifying
+    @Query(value = "UPDATE crawl_lease SET expires_at = now() + make_interval(secs => :ttlSeconds) " +
+            "WHERE name = :name AND owner_id = :ownerId AND expires_at >= now()", nativeQuery = true)
+    int renew(@Param("name") String name, @Param("ownerId") String ownerId, @Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Query(value = "DELETE FROM crawl_lease WHERE name = :name AND owner_id = :ownerId", nativeQuery = true)
+    int release(@Param("name") String name, @Param("ownerId") String ownerId);
+}
@@ -0,0 +1,22 @@
+package com.myproject.analyzerbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "crawl_node")
+public class CrawlNode {
+
+    @Id
+    private String nodeId; // 예: "backend-7f9c:3b2a1e"
+
+    @Column(nullable = false)
+    private LocalDateTime lastHeartbeat; // 마지막 생존 신호 (DB 시계 기준)
+
+}
@@ -0,0 +1,27 @@
+package com.myproject.analyzerbackend.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CrawlNodeRepository extends JpaRepository<CrawlNode, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO crawl_node (node_id, last_heartbeat) VALUES (:nodeId, now()) " +
+            "ON CONFLICT (node_id) DO UPDATE SET last_heartbeat = now()", nativeQuery = true)
+    void heartbeat(@Param("nodeId") String nodeId);
+
+    // 샤딩 기준: ID 오름차순으로 정렬된 살아 있는 노드 목록
+    @Query(value = "SELECT node_id FROM crawl_node " +
+            "WHERE last_heartbeat > now() - make_interval(secs => :ttlSeconds) ORDER BY node_id", nativeQuery = true)
+    List<String> findLiveNodeIds(@Param("ttlSeconds") long ttlSeconds);
+
+    @Modifying
+    @Query(value = "DELETE FROM crawl_node WHERE last_heartbeat < now() - make_interval(secs => :ttlSeconds)", nativeQuery = true)
+    int deleteStaleNodes(@Param("ttlSeconds") long ttlSeconds);
+}
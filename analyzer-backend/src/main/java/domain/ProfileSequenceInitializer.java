@@ -0,0 +1,43 @@
+package com.myproject.analyzerbackend.domain;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * IDENTITY 시절에 저장된 행과 ID가 겹치지 않도록 시퀀스를 MAX(id) 뒤로 맞춥니다.
+ * (@DependsOn = ddl-auto로 시퀀스가 생성된 이후 실행 보장)
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ProfileSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // AppCDS 학습 실행(DB 없이 컨텍스트만 띄움)에서는 false로 끔
+    public ProfileSequenceInitializer(JdbcTemplate jdbcTemplate,
+                                      @Value("${profile-sequence.align-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * pooled 최적화에서는 nextval 값이 할당 블록의 마지막 ID이므로, last_value가 MAX(id) 이상이면 이미 겹치지 않습니다.
+     * (정상 운영 중에는 보정하지 않아 재시작마다 할당 블록을 버리지 않음)
+     */
+    @PostConstruct
+    public void alignSequence() {
+        if (!enabled) return;
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM project_analyzer_storage", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject(
+                "SELECT last_value FROM project_analyzer_storage_seq", Long.class);
+        if (maxId != null && lastValue != null && lastValue < maxId) {
+            jdbcTemplate.queryForObject("SELECT setval('project_analyzer_storage_seq', ?)", Long.class, maxId);
+            System.out.println(">>> ID 시퀀스 보정: " + lastValue + " -> " + maxId);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
@@ -11,11 +13,18 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "project_analyzer_storage")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 (Caffeine JCache, application.conf에서 크기 제한)
+@Table(name = "project_analyzer_storage", indexes = {
+        @Index(name = "idx_profile_topic", columnList = "topic"),
+        @Index(name = "idx_profile_topic_created_at", columnList = "topic, created_at")
+})
 public class RepositoryProfile {
 
+    // IDENTITY는 Hibernate JDBC 배치를 끄므로 시퀀스(50개 단위 pooled) 사용
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profile_seq")
+    @SequenceGenerator(name = "profile_seq", sequenceName = "project_analyzer_storage_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -4,11 +4,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// 갤러리 조회 쿼리는 readOnly 트랜잭션 = 읽기 레플리카로 라우팅 (findAll / count는 기본 readOnly)
+// 중복 확인 / 패싯 / 의미 검색 대조용 쿼리와 ID 조회(삭제 / 이미지 재생성 / 임베딩 백필)는
+// 방금 커밋된 쓰기를 봐야 하므로 primary에서 읽음
 @Repository
 public interface RepositoryProfileRepository extends JpaRepository<RepositoryProfile, Long> {
 
@@ -16,6 +22,7 @@ public interface RepositoryProfileRepository extends JpaRepository<RepositoryPro
     Optional<RepositoryProfile> findByRepoName(String repoName);
 
     // [V40-A] "검색창" 기능
+    @Transactional(readOnly = true)
     Page<RepositoryProfile> findByProjectTitleContainingIgnoreCaseOrTechStackSummaryContainingIgnoreCase(
             String keywordForTitle,
             String keywordForSummary,
@@ -23,10 +30,46 @@ public interface RepositoryProfileRepository extends JpaRepository<RepositoryPro
     );
 
     // [V40-B] "분류(필터)" 기능
+    @Transactional(readOnly = true)
     Page<RepositoryProfile> findByTopic(String topic, Pageable pageable);
 
     // [V40-E] "동적 사이드바"를 위한 쿼리
+    @Transactional(readOnly = true)
     @Query("SELECT DISTINCT r.topic FROM RepositoryProfile r WHERE r.topic IS NOT NULL")
     List<String> findDistinctTopics();
+
+    // 토픽 패싯 재구축용 집계 쿼리 (기동 시 / 청소 후 1회)
+    @Query("SELECT new com.myproject.analyzerbackend.domain.TopicFacet(r.topic, COUNT(r), MAX(r.createdAt)) " +
+            "FROM RepositoryProfile r WHERE r.topic IS NOT NULL GROUP BY r.topic")
+    List<TopicFacet> aggregateTopicFacets();
+
+    // 단일 토픽 패싯 재계산 (최신 항목 삭제 시)
+    @Query("SELECT new com.myproject.analyzerbackend.domain.TopicFacet(r.topic, COUNT(r), MAX(r.createdAt)) " +
+            "FROM RepositoryProfile r WHERE r.topic = :topic GROUP BY r.topic")
+    Optional<TopicFacet> aggregateTopicFacet(@Param("topic") String topic);
+
+    @Transactional(readOnly = true)
     Page<RepositoryProfile> findByIdIn(List<Long> ids, Pageable pageable);
+
+    // 의미 검색 인덱스와 DB 대조용
+    @Query("SELECT r.id FROM RepositoryProfile r")
+    List<Long> findAllIds();
+
+    // ID 조회: SimpleJpaRepository 기본값(readOnly = 레플리카) 대신 primary
+    // (방금 만든 프로필의 삭제가 404가 되거나, 백필이 복제 지연으로 프로필을 놓치지 않도록)
+    @Override
+    @Transactional
+    Optional<RepositoryProfile> findById(Long id);
+
+    @Override
+    @Transactional
+    boolean existsById(Long id);
+
+    @Override
+    @Transactional
+    List<RepositoryProfile> findAllById(Iterable<Long> ids);
+
+    // 대량 가져오기 중복 제거용 (청크 단위 IN 조회)
+    @Query("SELECT r.repoName FROM RepositoryProfile r WHERE r.repoName IN :repoNames")
+    List<String> findExistingRepoNames(@Param("repoNames") Collection<String> repoNames);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.myproject.analyzerbackend.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "topic_cursor")
+public class TopicCursor {
+
+    @Id
+    private String topic; // 예: "Docker"
+
+    @Column(nullable = false)
+    private int nextPage = 1; // 다음에 검색할 페이지
+
+    private LocalDateTime lastCrawledAt; // 마지막 크롤링 시각
+
+    // ===== 증분(신규 저장소) 수집 상태 (시각은 모두 UTC) =====
+    private LocalDateTime watermark; // 이 시각까지 생성/푸시된 저장소는 수집 완료
+
+    private LocalDateTime windowStart; // 진행 중인 검색 창 [windowStart, windowEnd]
+    private LocalDateTime windowEnd;
+
+    // 기존 행에 컬럼이 추가될 때를 위해 DB 기본값 지정
+    @Column(columnDefinition = "integer not null default 1")
+    private int windowPage = 1; // 검색 창 안에서 다음에 검색할 페이지
+
+    @Column(columnDefinition = "bigint not null default 0")
+    private long tickCount = 0; // 신규/백필 비율 배분용 틱 카운터
+
+    // 낙관적 잠금: 임대가 넘어가는 사이 이전 노드의 늦은 저장과 새 노드의 저장이 서로를 덮어쓰지 않도록
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
+    public TopicCursor(String topic) {
+        this.topic = topic;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.myproject.analyzerbackend.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TopicCursorRepository extends JpaRepository<TopicCursor, String> {
+
+    // 크롤링 순서 결정용: 주제 이름만 오래 크롤링하지 않은 순으로 (엔티티를 읽지 않으므로 임대 획득 후 findById가 DB에서 새로 읽음)
+    @Query("SELECT c.topic FROM TopicCursor c WHERE c.topic IN :topics ORDER BY c.lastCrawledAt ASC NULLS FIRST")
+    List<String> findTopicsByLastCrawledAt(@Param("topics") List<String> topics);
+}
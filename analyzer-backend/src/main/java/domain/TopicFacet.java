@@ -0,0 +1,6 @@
+package com.myproject.analyzerbackend.domain;
+
+import java.time.LocalDateTime;
+
+// 사이드바 토픽 패싯 (토픽명, 프로젝트 수, 최신 분석 시각)
+public record TopicFacet(String topic, long count, LocalDateTime latestCreatedAt) {}
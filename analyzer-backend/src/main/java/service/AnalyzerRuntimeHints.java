@@ -0,0 +1,52 @@
+package com.myproject.analyzerbackend.service;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.myproject.analyzerbackend.domain.ChangeVersion;
+import com.myproject.analyzerbackend.domain.CrawlLease;
+import com.myproject.analyzerbackend.domain.CrawlNode;
+import com.myproject.analyzerbackend.domain.RepositoryProfile;
+import com.myproject.analyzerbackend.domain.TopicCursor;
+import com.myproject.analyzerbackend.domain.TopicFacet;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * GraalVM native-image / Spring AOT용 런타임 힌트입니다.
+ * - ComfyUI 워크플로우 JSON은 클래스패스 리소스로 읽으므로 이미지에 포함시킵니다.
+ * - Jackson으로 직렬화하는 엔티티(Lombok 게터/세터)와 레코드, Page 응답은 바인딩용 리플렉션을 등록합니다.
+ * - JPA 엔티티는 Hibernate가 필드/생성자를 리플렉션으로 다루므로 전체 멤버를 등록합니다.
+ * - 2차 캐시: JCache 공급자는 설정의 클래스 이름으로 생성되고, 영역 설정은 application.conf(Typesafe Config)에서 읽습니다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(AnalyzerRuntimeHints.Registrar.class)
+@RegisterReflectionForBinding({RepositoryProfile.class, TopicFacet.class, BulkImportResult.class, PageImpl.class})
+public class AnalyzerRuntimeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern(ComfyUiService.WORKFLOW_RESOURCE);
+
+            for (Class<?> entity : new Class<?>[]{RepositoryProfile.class, CrawlLease.class, CrawlNode.class, TopicCursor.class, ChangeVersion.class}) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // JPQL 생성자 표현식(new TopicFacet(...))은 Hibernate가 리플렉션으로 생성자를 호출함
+            hints.reflection().registerType(TopicFacet.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+            // hibernate.javax.cache.provider 클래스 이름으로 생성 + Caffeine JCache 설정 파일
+            hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("application.conf");
+            hints.resources().registerPattern("reference.conf");
+        }
+    }
+}
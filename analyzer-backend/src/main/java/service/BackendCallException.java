@@ -0,0 +1,38 @@
+package com.myproject.analyzerbackend.service;
+
+/**
+ * BackendGuard가 호출을 거절했거나 호출이 실패했을 때의 명시적인 실패 사유를 담습니다.
+ */
+public class BackendCallException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,   // 최근 실패율이 높아 차단 중
+        LIMIT_EXCEEDED, // 적응형 동시 실행 한도 초과 (부하 차단)
+        TIMEOUT,        // 지연 백분위 기반 타임아웃
+        ERROR           // 그 외 호출 오류
+    }
+
+    private final String backend;
+    private final Reason reason;
+
+    public BackendCallException(String backend, Reason reason, String message, Throwable cause) {
+        super(backend + " " + reason + ": " + message, cause);
+        this.backend = backend;
+        this.reason = reason;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * 백엔드가 이미 과부하/장애 상태라서 호출 전에 거절된 경우
+     */
+    public boolean isShed() {
+        return reason == Reason.CIRCUIT_OPEN || reason == Reason.LIMIT_EXCEEDED;
+    }
+}
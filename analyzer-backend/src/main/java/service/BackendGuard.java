@@ -0,0 +1,288 @@
+package com.myproject.analyzerbackend.service;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 외부 백엔드(Ollama / ComfyUI / GitHub) 호출을 보호합니다.
+ * 1. 적응형 동시 실행 한도: 최근 지연이 최소 지연 대비 커지면 한도를 줄이고, 안정적이면 조금씩 늘립니다. (gradient + AIMD)
+ *    최소 지연은 MIN_RTT_WINDOW마다 직전 구간의 최소값으로 다시 잡습니다. (한 번의 빠른 호출이 기준을 영구히 낮추지 않도록)
+ *    한도를 넘는 호출은 기다리지 않고 즉시 LIMIT_EXCEEDED로 거절합니다.
+ *    Ollama / ComfyUI는 앞단 GpuWorkScheduler가 currentLimit()을 슬롯 수로 써서 한도 안에서 우선순위대로 대기시킵니다.
+ * 2. 서킷 브레이커: 최근 호출의 실패율이 임계값을 넘으면 일정 시간 동안 CIRCUIT_OPEN으로 즉시 실패,
+ *    이후 시험 호출 하나가 성공하면 다시 닫습니다. (열리기 전에 시작된 호출의 결과는 상태를 바꾸지 않음)
+ * 3. 타임아웃: 최근 성공 지연의 p99 x 배수를 [최소, 최대] 범위로 잘라 사용합니다. (표본이 적으면 최대값)
+ */
+public class BackendGuard {
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int LATENCY_SAMPLES = 200;
+    private static final int MIN_SAMPLES_FOR_PERCENTILE = 20;
+    private static final double TIMEOUT_MULTIPLIER = 2.0;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double DECREASE_FACTOR = 0.7;
+    private static final int OUTCOME_WINDOW = 20;
+    private static final int MIN_CALLS_FOR_CIRCUIT = 10;
+    private static final double FAILURE_RATE_THRESHOLD = 0.5;
+    private static final Duration MIN_RTT_WINDOW = Duration.ofMinutes(1);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration minTimeout;
+    private final Duration maxTimeout;
+    private final Duration openDuration;
+    private final LongSupplier nanoClock;
+
+    // 동시 실행 한도
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    // 현재 구간의 최소 지연 (구간이 끝나면 minRttNanos로 교체)
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private long windowStartedAt;
+
+    // 지연 표본 (원형 버퍼)
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyCursor;
+
+    // 서킷 브레이커
+    private final boolean[] outcomes = new boolean[OUTCOME_WINDOW];
+    private int outcomeCount;
+    private int outcomeCursor;
+    private CircuitState circuitState = CircuitState.CLOSED;
+    private long openedAt;
+    private boolean halfOpenProbeInFlight;
+
+    // acquire 결과: 이번 호출의 타임아웃과 반열림 시험 호출 여부
+    private record Permit(Duration timeout, boolean probe) {}
+
+    private long shedCount;
+
+    public BackendGuard(String name, int initialLimit, int minLimit, int maxLimit,
+                        Duration minTimeout, Duration maxTimeout, Duration openDuration) {
+        this(name, initialLimit, minLimit, maxLimit, minTimeout, maxTimeout, openDuration, System::nanoTime);
+    }
+
+    // 테스트에서 시계를 바꿔 끼우기 위한 생성자
+    BackendGuard(String name, int initialLimit, int minLimit, int maxLimit,
+                 Duration minTimeout, Duration maxTimeout, Duration openDuration, LongSupplier nanoClock) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.limit = Math.max(minLimit, Math.min(this.maxLimit, initialLimit));
+        this.minTimeout = minTimeout;
+        this.maxTimeout = maxTimeout;
+        this.openDuration = openDuration;
+        this.nanoClock = nanoClock;
+        this.windowStartedAt = nanoClock.getAsLong();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 보호된 호출을 실행합니다. call에는 이번 호출에 적용할 타임아웃이 전달됩니다.
+     * @throws BackendCallException 거절 또는 실패 시 (사유 포함)
+     */
+    public <T> T call(Function<Duration, T> call) {
+        Permit permit = acquire();
+        long start = nanoClock.getAsLong();
+        boolean healthy = false;
+        boolean overload = false;
+        try {
+            T result = call.apply(permit.timeout());
+            healthy = true;
+            return result;
+        } catch (RuntimeException e) {
+            overload = isTimeout(e);
+            // 404 같은 클라이언트 오류는 백엔드가 정상 응답한 것이므로 실패율에 넣지 않음 (429 / 레이트 리밋 403 제외)
+            healthy = isClientError(e);
+            throw new BackendCallException(name, overload ? BackendCallException.Reason.TIMEOUT : BackendCallException.Reason.ERROR,
+                    String.valueOf(e.getMessage()), e);
+        } finally {
+            release(permit, nanoClock.getAsLong() - start, healthy, overload);
+        }
+    }
+
+    /**
+     * 현재 동시 실행 한도 (minLimit ~ maxLimit)
+     */
+    public synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("circuit", currentState().name());
+        stats.put("limit", (int) limit);
+        stats.put("minRttMs", minRttNanos == Long.MAX_VALUE ? 0 : minRttNanos / 1_000_000);
+        stats.put("inFlight", inFlight);
+        stats.put("timeoutMs", currentTimeout().toMillis());
+        stats.put("p50Ms", percentileNanos(0.5) / 1_000_000);
+        stats.put("p99Ms", percentileNanos(0.99) / 1_000_000);
+        stats.put("shed", shedCount);
+        return stats;
+    }
+
+    private synchronized Permit acquire() {
+        CircuitState state = currentState();
+        if (state == CircuitState.OPEN || (state == CircuitState.HALF_OPEN && halfOpenProbeInFlight)) {
+            shedCount++;
+            throw new BackendCallException(name, BackendCallException.Reason.CIRCUIT_OPEN, "최근 실패율 초과로 차단 중", null);
+        }
+        if (inFlight >= (int) limit) {
+            shedCount++;
+            throw new BackendCallException(name, BackendCallException.Reason.LIMIT_EXCEEDED,
+                    "동시 실행 한도 " + (int) limit + " 초과", null);
+        }
+        boolean probe = state == CircuitState.HALF_OPEN;
+        if (probe) halfOpenProbeInFlight = true;
+        inFlight++;
+        return new Permit(currentTimeout(), probe);
+    }
+
+    private synchronized void release(Permit permit, long rttNanos, boolean success, boolean overload) {
+        inFlight--;
+
+        if (success) {
+            recordLatency(rttNanos);
+            adjustLimitOnSuccess(Math.max(1, rttNanos));
+        } else if (overload) {
+            // 타임아웃 = 과부하 신호: 곱셈 감소
+            limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+        }
+
+        if (permit.probe()) {
+            halfOpenProbeInFlight = false;
+            if (success) {
+                circuitState = CircuitState.CLOSED;
+                outcomeCount = 0;
+                outcomeCursor = 0;
+                System.out.println(">>> [" + name + "] 서킷 닫힘 (시험 호출 성공)");
+            } else {
+                open();
+            }
+            return;
+        }
+        // 열리기 전에 시작된 호출은 열림/반열림 상태를 바꾸지 않음 (반열림은 시험 호출만 닫거나 다시 엶)
+        if (circuitState != CircuitState.CLOSED) return;
+
+        outcomes[outcomeCursor] = success;
+        outcomeCursor = (outcomeCursor + 1) % OUTCOME_WINDOW;
+        outcomeCount = Math.min(outcomeCount + 1, OUTCOME_WINDOW);
+        if (outcomeCount >= MIN_CALLS_FOR_CIRCUIT && failureRate() >= FAILURE_RATE_THRESHOLD) {
+            open();
+        }
+    }
+
+    /**
+     * 현재 지연이 최소 지연 x 허용치 이내면 한도 +1/limit (덧셈 증가),
+     * 그보다 느리면 기울기(minRtt x 허용치 / rtt)만큼 줄입니다.
+     */
+    private void adjustLimitOnSuccess(long rttNanos) {
+        updateMinRtt(rttNanos);
+        double gradient = (minRttNanos * RTT_TOLERANCE) / rttNanos;
+        if (gradient >= 1.0) {
+            // 한도를 실제로 쓰고 있을 때만 늘림 (유휴 상태에서 한도가 무한히 커지는 것 방지)
+            if (inFlight + 1 >= limit / 2) limit = Math.min(maxLimit, limit + 1.0 / limit);
+        } else {
+            limit = Math.max(minLimit, limit * Math.max(DECREASE_FACTOR, gradient));
+        }
+    }
+
+    /**
+     * 최소 지연을 구간 단위로 다시 잡습니다.
+     * 구간 안에서는 지금까지의 최소값을 쓰고, 구간이 끝나면 그 구간에서 관측한 최소값으로 교체합니다.
+     * (모델이 바뀌거나 빠른 요청만 몰렸던 구간의 기준이 계속 남아 한도를 minLimit에 묶어 두지 않도록)
+     */
+    private void updateMinRtt(long rttNanos) {
+        long now = nanoClock.getAsLong();
+        if (now - windowStartedAt >= MIN_RTT_WINDOW.toNanos() && windowMinRttNanos != Long.MAX_VALUE) {
+            minRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowStartedAt = now;
+        }
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+    }
+
+    private void open() {
+        circuitState = CircuitState.OPEN;
+        openedAt = nanoClock.getAsLong();
+        System.err.println(">>> [" + name + "] 서킷 열림 (" + openDuration.toSeconds() + "초간 즉시 실패)");
+    }
+
+    private CircuitState currentState() {
+        if (circuitState == CircuitState.OPEN && nanoClock.getAsLong() - openedAt >= openDuration.toNanos()) {
+            circuitState = CircuitState.HALF_OPEN;
+            halfOpenProbeInFlight = false;
+        }
+        return circuitState;
+    }
+
+    private double failureRate() {
+        int failures = 0;
+        for (int i = 0; i < outcomeCount; i++) {
+            if (!outcomes[i]) failures++;
+        }
+        return (double) failures / outcomeCount;
+    }
+
+    private void recordLatency(long rttNanos) {
+        latencies[latencyCursor] = rttNanos;
+        latencyCursor = (latencyCursor + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+    }
+
+    private long percentileNanos(double percentile) {
+        if (latencyCount == 0) return 0;
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * latencyCount) - 1;
+        return sorted[Math.max(0, Math.min(index, latencyCount - 1))];
+    }
+
+    private Duration currentTimeout() {
+        if (latencyCount < MIN_SAMPLES_FOR_PERCENTILE) return maxTimeout;
+        long timeoutNanos = (long) (percentileNanos(0.99) * TIMEOUT_MULTIPLIER);
+        Duration timeout = Duration.ofNanos(timeoutNanos);
+        if (timeout.compareTo(minTimeout) < 0) return minTimeout;
+        if (timeout.compareTo(maxTimeout) > 0) return maxTimeout;
+        return timeout;
+    }
+
+    private boolean isClientError(Throwable e) {
+        return e instanceof WebClientResponseException response
+                && response.getStatusCode().is4xxClientError()
+                && response.getStatusCode().value() != 429
+                && !isRateLimited(response);
+    }
+
+    /**
+     * GitHub는 기본/보조 레이트 리밋을 403으로 돌려줍니다. (남은 호출 0 또는 Retry-After)
+     */
+    private boolean isRateLimited(WebClientResponseException response) {
+        if (response.getStatusCode().value() != 403) return false;
+        return "0".equals(response.getHeaders().getFirst("X-RateLimit-Remaining"))
+                || response.getHeaders().getFirst("Retry-After") != null;
+    }
+
+    private boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException) return true;
+        }
+        return false;
+    }
+}
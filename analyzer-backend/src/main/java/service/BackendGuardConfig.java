@@ -0,0 +1,50 @@
+package com.myproject.analyzerbackend.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class BackendGuardConfig {
+
+    @Value("${backend-guard.open-duration-seconds:30}")
+    private long openDurationSeconds;
+
+    // 1. Ollama: 생성(/generate)과 임베딩(/embeddings)은 지연 규모가 수십 배 다르므로 최소 지연 기준을 따로 둠
+    //    한도는 gpu-scheduler.ollama.slots에서 시작해 1 ~ max-limit 사이에서 움직이며 GpuWorkScheduler의 슬롯 수가 됨
+    @Bean
+    @Qualifier("ollamaGenerateGuard")
+    public BackendGuard ollamaGenerateGuard(@Value("${backend-guard.ollama.max-limit:4}") int maxLimit,
+                                            @Value("${gpu-scheduler.ollama.slots:2}") int slots) {
+        return new BackendGuard("Ollama", slots, 1, maxLimit,
+                Duration.ofSeconds(30), Duration.ofMinutes(3), Duration.ofSeconds(openDurationSeconds));
+    }
+
+    @Bean
+    @Qualifier("ollamaEmbeddingGuard")
+    public BackendGuard ollamaEmbeddingGuard(@Value("${backend-guard.ollama.max-limit:4}") int maxLimit,
+                                             @Value("${gpu-scheduler.ollama.slots:2}") int slots) {
+        return new BackendGuard("Ollama-Embedding", slots, 1, maxLimit,
+                Duration.ofSeconds(2), Duration.ofSeconds(30), Duration.ofSeconds(openDurationSeconds));
+    }
+
+    // 2. ComfyUI (/prompt 제출, 한도는 gpu-scheduler.comfyui.slots에서 시작)
+    @Bean
+    @Qualifier("comfyuiGuard")
+    public BackendGuard comfyuiGuard(@Value("${backend-guard.comfyui.max-limit:4}") int maxLimit,
+                                     @Value("${gpu-scheduler.comfyui.slots:2}") int slots) {
+        return new BackendGuard("ComfyUI", slots, 1, maxLimit,
+                Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(openDurationSeconds));
+    }
+
+    // 3. GitHub API
+    @Bean
+    @Qualifier("githubGuard")
+    public BackendGuard githubGuard(@Value("${backend-guard.github.max-limit:8}") int maxLimit) {
+        return new BackendGuard("GitHub", 4, 1, maxLimit,
+                Duration.ofSeconds(2), Duration.ofSeconds(20), Duration.ofSeconds(openDurationSeconds));
+    }
+}
@@ -0,0 +1,4 @@
+package com.myproject.analyzerbackend.service;
+
+// 대량 가져오기 접수 결과 (받은 줄 수, 큐 등록, 중복, 형식 오류, 큐 초과로 거절)
+public record BulkImportResult(int received, int queued, int duplicates, int invalid, int rejected) {}
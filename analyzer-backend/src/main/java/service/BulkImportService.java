@@ -0,0 +1,264 @@
+package com.myproject.analyzerbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myproject.analyzerbackend.domain.RepositoryProfile;
+import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 분석 대기 중인 가져오기 항목
+record ImportTask(String owner, String repoName, String repoUrl, String topic) {
+    String fullRepoName() {
+        return owner + "/" + repoName;
+    }
+}
+
+/**
+ * 저장소 URL 목록(NDJSON / CSV / 한 줄에 하나)을 스트리밍으로 읽어 분석 큐에 넣고,
+ * 스케줄러가 조금씩 꺼내 분석한 뒤 배치로 저장합니다.
+ */
+@Service
+public class BulkImportService {
+
+    private static final String DEFAULT_TOPIC = "Imported";
+    private static final int DEDUP_CHUNK_SIZE = 500;
+    private static final Pattern REPO_PATTERN = Pattern.compile(
+            "^(?:https?://github\\.com/)?([A-Za-z0-9_.-]+)/([A-Za-z0-9_.-]+?)(?:\\.git)?/?(?:[?#/].*)?$");
+
+    private final RepositoryProfileRepository repositoryProfileRepository;
+    private final CrawlingService crawlingService;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<ImportTask> queue;
+    private final Set<String> queuedRepoNames = ConcurrentHashMap.newKeySet();
+    private final int drainBatchSize;
+
+    public BulkImportService(RepositoryProfileRepository repositoryProfileRepository,
+                             CrawlingService crawlingService,
+                             ObjectMapper objectMapper,
+                             @Value("${bulk-import.queue-capacity:20000}") int queueCapacity,
+                             @Value("${bulk-import.drain-batch-size:5}") int drainBatchSize) {
+        this.repositoryProfileRepository = repositoryProfileRepository;
+        this.crawlingService = crawlingService;
+        this.objectMapper = objectMapper;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.drainBatchSize = drainBatchSize;
+    }
+
+    /**
+     * 업로드 스트림을 한 줄씩 읽어 청크 단위로 중복 제거 후 큐에 등록합니다.
+     */
+    public BulkImportResult importStream(InputStream inputStream) throws IOException {
+        int received = 0, queued = 0, duplicates = 0, invalid = 0, rejected = 0;
+        Map<String, ImportTask> chunk = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.equalsIgnoreCase("url") || line.toLowerCase().startsWith("url,")) {
+                    continue;
+                }
+                received++;
+
+                ImportTask task = parseLine(line);
+                if (task == null) {
+                    invalid++;
+                    continue;
+                }
+                if (chunk.putIfAbsent(task.fullRepoName(), task) != null) {
+                    duplicates++;
+                    continue;
+                }
+
+                if (chunk.size() >= DEDUP_CHUNK_SIZE) {
+                    int[] counts = enqueueChunk(chunk);
+                    queued += counts[0]; duplicates += counts[1]; rejected += counts[2];
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int[] counts = enqueueChunk(chunk);
+            queued += counts[0]; duplicates += counts[1]; rejected += counts[2];
+        }
+
+        System.out.println(">>> [가져오기] 접수: " + received + ", 큐 등록: " + queued + ", 중복: " + duplicates
+                + ", 형식 오류: " + invalid + ", 거절: " + rejected + " (대기 " + queue.size() + "개)");
+        return new BulkImportResult(received, queued, duplicates, invalid, rejected);
+    }
+
+    /**
+     * 큐에서 일정 개수만 꺼내 분석하고 한 번에 저장합니다. (Ollama/ComfyUI 부하 조절)
+     */
+    @Scheduled(fixedDelayString = "${bulk-import.drain-interval-ms:30000}")
+    public void drainQueue() {
+        if (queue.isEmpty()) return;
+
+        List<ImportTask> tasks = new ArrayList<>(drainBatchSize);
+        queue.drainTo(tasks, drainBatchSize);
+
+        List<RepositoryProfile> profilesToSave = new ArrayList<>();
+        for (ImportTask task : tasks) {
+            try {
+                RepositoryProfile profile = crawlingService.analyzeRepository(
+                        task.owner(), task.repoName(), task.repoUrl(), task.topic(), GpuWork.background(task.fullRepoName()));
+                if (profile != null) profilesToSave.add(profile);
+            } catch (Exception e) {
+                System.err.println("  - 가져오기 분석 오류 (" + task.fullRepoName() + "): " + e.getMessage());
+            }
+        }
+
+        try {
+            int saved = saveWithoutLosingBatch(profilesToSave);
+            System.out.println(">>> [가져오기] " + saved + "/" + tasks.size() + "개 저장 (남은 대기 " + queue.size() + "개)");
+        } finally {
+            tasks.forEach(task -> queuedRepoNames.remove(task.fullRepoName()));
+        }
+    }
+
+    /**
+     * 배치로 저장하고, 확인과 저장 사이에 다른 쪽이 같은 저장소를 넣어 유니크 제약에 걸리면
+     * 한 건씩 다시 저장해 나머지 분석 결과를 살립니다.
+     */
+    private int saveWithoutLosingBatch(List<RepositoryProfile> profiles) {
+        try {
+            return crawlingService.saveProfiles(profiles);
+        } catch (DataIntegrityViolationException e) {
+            System.out.println(">>> [가져오기] 동시 저장과 충돌, 한 건씩 다시 저장합니다.");
+        } catch (Exception e) {
+            System.err.println(">>> [가져오기] 저장 실패: " + e.getMessage());
+            return 0;
+        }
+
+        int saved = 0;
+        for (RepositoryProfile profile : profiles) {
+            // 롤백된 배치에서 할당된 ID는 버리고 새로 할당
+            profile.setId(null);
+            try {
+                saved += crawlingService.saveProfiles(List.of(profile));
+            } catch (DataIntegrityViolationException e) {
+                System.out.println("  - 이미 저장된 저장소: " + profile.getRepoName());
+            } catch (Exception e) {
+                System.err.println("  - 저장 실패 (" + profile.getRepoName() + "): " + e.getMessage());
+            }
+        }
+        return saved;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 청크 하나를 DB(IN 조회 1회)와 대기 큐 기준으로 중복 제거 후 등록합니다.
+     * @return {등록, 중복, 거절}
+     */
+    private int[] enqueueChunk(Map<String, ImportTask> chunk) {
+        Set<String> existing = new HashSet<>(repositoryProfileRepository.findExistingRepoNames(chunk.keySet()));
+        int queued = 0, duplicates = 0, rejected = 0;
+        for (ImportTask task : chunk.values()) {
+            String name = task.fullRepoName();
+            if (existing.contains(name) || !queuedRepoNames.add(name)) {
+                duplicates++;
+                continue;
+            }
+            if (queue.offer(task)) {
+                queued++;
+            } else {
+                queuedRepoNames.remove(name);
+                rejected++;
+            }
+        }
+        return new int[]{queued, duplicates, rejected};
+    }
+
+    /**
+     * 한 줄을 해석합니다: {"url": "...", "topic": "..."} / "url" / url,topic
+     */
+    private ImportTask parseLine(String line) {
+        String url;
+        String topic = null;
+        try {
+            if (line.startsWith("{")) {
+                JsonNode node = objectMapper.readTree(line);
+                url = node.path("url").asText(null);
+                topic = node.path("topic").asText(null);
+            } else if (line.startsWith("\"") && line.endsWith("\"") && line.indexOf(',') < 0) {
+                url = objectMapper.readValue(line, String.class);
+            } else {
+                List<String> columns = parseCsvColumns(line);
+                if (columns == null) return null;
+                url = columns.get(0).trim();
+                if (columns.size() > 1) topic = columns.get(1).trim();
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        if (url == null) return null;
+
+        Matcher matcher = REPO_PATTERN.matcher(url.trim());
+        if (!matcher.matches()) return null;
+
+        String owner = matcher.group(1);
+        String repoName = matcher.group(2);
+        String repoUrl = "https://github.com/" + owner + "/" + repoName;
+        return new ImportTask(owner, repoName, repoUrl, topic == null || topic.isBlank() ? DEFAULT_TOPIC : topic);
+    }
+
+    /**
+     * CSV 한 줄을 열로 나눕니다. 큰따옴표로 감싼 열 안의 쉼표와 "" (따옴표 이스케이프)를 처리합니다.
+     * 열 안의 줄바꿈은 지원하지 않습니다. (한 줄 = 한 항목)
+     * @return 따옴표가 닫히지 않았으면 null
+     */
+    static List<String> parseCsvColumns(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) return null;
+        columns.add(current.toString());
+        return columns;
+    }
+}
@@ -0,0 +1,96 @@
+package com.myproject.analyzerbackend.service;
+
+import com.myproject.analyzerbackend.domain.ChangeVersionRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 노드마다 메모리에 들고 있는 상태(토픽 패싯, HNSW 인덱스, 조회/엔티티 캐시, 정적 스냅샷)를
+ * 다른 노드의 저장/삭제에 맞춰 갱신합니다.
+ * - 프로필을 바꾸는 트랜잭션은 change_version 행의 버전을 1 올립니다.
+ * - 주기적으로 버전을 읽어, 그사이 올라간 버전 중 이 노드가 올리지 않은 것이 있으면 전체를 DB에서 다시 맞춥니다.
+ */
+@Service
+public class ClusterChangeService {
+
+    private static final String PROFILES = "profiles";
+
+    private final ChangeVersionRepository changeVersionRepository;
+    private final TopicFacetService topicFacetService;
+    private final SemanticSearchService semanticSearchService;
+    private final ProfileQueryCache profileQueryCache;
+    private final GallerySnapshotService gallerySnapshotService;
+
+    // 이 노드가 올렸고 아직 확인하지 않은 버전
+    private final NavigableSet<Long> ownVersions = new ConcurrentSkipListSet<>();
+    private volatile long lastSeen = -1;
+
+    public ClusterChangeService(ChangeVersionRepository changeVersionRepository,
+                                TopicFacetService topicFacetService,
+                                SemanticSearchService semanticSearchService,
+                                ProfileQueryCache profileQueryCache,
+                                GallerySnapshotService gallerySnapshotService) {
+        this.changeVersionRepository = changeVersionRepository;
+        this.topicFacetService = topicFacetService;
+        this.semanticSearchService = semanticSearchService;
+        this.profileQueryCache = profileQueryCache;
+        this.gallerySnapshotService = gallerySnapshotService;
+    }
+
+    /**
+     * 프로필 변경을 기록합니다. 호출자 트랜잭션과 함께 커밋/롤백됩니다.
+     */
+    @Transactional
+    public void recordChange() {
+        changeVersionRepository.increment(PROFILES);
+        Long version = changeVersionRepository.findVersion(PROFILES);
+        if (version == null) return;
+        ownVersions.add(version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // 롤백된 번호는 다른 노드가 다시 쓰므로 내 것으로 치지 않음
+                    if (status != STATUS_COMMITTED) ownVersions.remove(version);
+                }
+            });
+        }
+    }
+
+    /**
+     * 다른 노드의 변경이 있었으면 노드 로컬 상태를 DB 기준으로 다시 맞춥니다.
+     * 방금 커밋된 버전을 봐야 하므로 읽기 전용이 아닌 트랜잭션(= primary)에서 읽습니다.
+     */
+    @Scheduled(fixedDelayString = "${cluster.change-poll-ms:30000}")
+    @Transactional
+    public void pollForeignChanges() {
+        Long current = changeVersionRepository.findVersion(PROFILES);
+        if (current == null) return;
+
+        long previous = lastSeen;
+        lastSeen = current;
+        boolean foreign = false;
+        if (previous >= 0) {
+            for (long version = previous + 1; version <= current; version++) {
+                if (!ownVersions.contains(version)) {
+                    foreign = true;
+                    break;
+                }
+            }
+        }
+        ownVersions.headSet(current, true).clear();
+        if (!foreign) return;
+
+        System.out.println(">>> [클러스터] 다른 노드의 변경 감지 (버전 " + previous + " -> " + current + "), 로컬 상태를 다시 맞춥니다.");
+        topicFacetService.rebuild();
+        semanticSearchService.recordForeignChange();
+        profileQueryCache.recordForeignChange();
+        gallerySnapshotService.recordChanged();
+    }
+}
@@ -23,18 +23,26 @@ public class ComfyUiService {
 
     private final WebClient comfyuiWebClient;
     private final ObjectMapper objectMapper;
+    private final GpuWorkScheduler gpuWorkScheduler;
+    private final BackendGuard comfyuiGuard;
     private final String comfyBaseUrl = "http://localhost:8189";
     private String workflowJsonTemplate;
 
+    // 클래스패스 워크플로우 파일 (native-image 리소스 힌트: AnalyzerRuntimeHints)
+    static final String WORKFLOW_RESOURCE = "github-profile-workflow.json";
+
     // T2I 워크플로우의 노드 ID (github-profile-workflow.json 파일과 일치해야 함)
     private final String COMFY_POSITIVE_NODE_ID = "6";
     private final String COMFY_NEGATIVE_NODE_ID = "7";
 
-    public ComfyUiService(@Qualifier("comfyuiWebClient") WebClient comfyuiWebClient, ObjectMapper objectMapper) {
+    public ComfyUiService(@Qualifier("comfyuiWebClient") WebClient comfyuiWebClient, ObjectMapper objectMapper,
+                          GpuWorkScheduler gpuWorkScheduler, @Qualifier("comfyuiGuard") BackendGuard comfyuiGuard) {
         this.comfyuiWebClient = comfyuiWebClient;
         this.objectMapper = objectMapper;
+        this.gpuWorkScheduler = gpuWorkScheduler;
+        this.comfyuiGuard = comfyuiGuard;
         try {
-            this.workflowJsonTemplate = loadWorkflowJson("github-profile-workflow.json");
+            this.workflowJsonTemplate = loadWorkflowJson(WORKFLOW_RESOURCE);
             System.out.println(">>> ComfyUI 워크플로우 로드 성공.");
         } catch (Exception e) {
             System.err.println(">>> ComfyUI 워크플로우 로드 실패!");
@@ -62,12 +70,17 @@ public class ComfyUiService {
 
     /**
      * T2I (Text-to-Image)로 이미지를 생성합니다.
+     * 제출부터 완료 대기까지 GPU를 점유하므로 GpuWorkScheduler 슬롯 하나를 잡고 실행합니다.
      */
-    public String generateImageForHotdeal(String positivePrompt, String negativePrompt) throws Exception {
+    public String generateImageForHotdeal(String positivePrompt, String negativePrompt, GpuWork work) throws Exception {
         if (!isWorkflowLoaded()) throw new Exception("ComfyUI 워크플로우가 로드되지 않았습니다.");
 
         JsonNode workflow = updateWorkflowPrompts(positivePrompt, negativePrompt);
 
+        return gpuWorkScheduler.runComfyUi(work, () -> runWorkflow(workflow, positivePrompt));
+    }
+
+    private String runWorkflow(JsonNode workflow, String positivePrompt) throws Exception {
         String promptId = submitWorkflowToComfyUI(workflow);
         if (promptId == null) {
             throw new Exception("ComfyUI API 제출 실패. Prompt: " + positivePrompt);
@@ -107,18 +120,20 @@ public class ComfyUiService {
     }
 
     /**
-     * ComfyUI /prompt API에 워크플로우를 제출합니다.
+     * ComfyUI /prompt API에 워크플로우를 제출합니다. (BackendGuard 경유)
+     * 서킷 차단/한도 초과는 사유와 함께 BackendCallException으로 전달합니다.
      */
     private String submitWorkflowToComfyUI(JsonNode workflow) {
         Map<String, JsonNode> body = Map.of("prompt", workflow);
         try {
-            JsonNode response = comfyuiWebClient.post().uri("/prompt")
+            JsonNode response = comfyuiGuard.call(timeout -> comfyuiWebClient.post().uri("/prompt")
                     .contentType(MediaType.APPLICATION_JSON).bodyValue(body)
                     .retrieve().bodyToMono(JsonNode.class)
-                    .timeout(Duration.ofSeconds(10)).block();
+                    .timeout(timeout).block());
             return response != null ? response.path("prompt_id").asText(null) : null;
-        } catch (Exception e) {
-            System.err.println("ComfyUI /prompt API 호출 중 오류: " + e.getMessage());
+        } catch (BackendCallException e) {
+            System.err.println("ComfyUI /prompt API 호출 실패 (" + e.getReason() + "): " + e.getMessage());
+            if (e.isShed()) throw e;
             return null;
         }
     }
@@ -0,0 +1,359 @@
+package com.myproject.analyzerbackend.service;
+
+import com.myproject.analyzerbackend.domain.CrawlLeaseRepository;
+import com.myproject.analyzerbackend.domain.CrawlNodeRepository;
+import com.myproject.analyzerbackend.domain.TopicCursor;
+import com.myproject.analyzerbackend.domain.TopicCursorRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 신규 저장소 검색 창 (field: created 또는 pushed, 시각은 UTC)
+record SearchWindow(String field, LocalDateTime start, LocalDateTime end, int minStars) {
+    private static final DateTimeFormatter GITHUB_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
+    String qualifiers() {
+        return field + ":" + GITHUB_TIME.format(start) + ".." + GITHUB_TIME.format(end)
+                + (minStars > 0 ? " stars:>=" + minStars : "");
+    }
+}
+
+// 이번 틱에 이 노드가 맡은 주제와 페이지 (window가 null이면 전체 기간 인기순 백필)
+// leaseOwner: 이 배정의 임대 토큰 (같은 노드의 다른 틱과도 구분됨)
+record TopicAssignment(String topic, int page, SearchWindow window, String leaseOwner) {
+    static String leaseNameOf(String topic) {
+        return "crawl:" + topic;
+    }
+
+    String leaseName() {
+        return leaseNameOf(topic);
+    }
+
+    String qualifiers() {
+        return window != null ? window.qualifiers() : "";
+    }
+}
+
+/**
+ * 여러 백엔드 레플리카 간 크롤링을 조율합니다.
+ * - 노드 생존 신호(crawl_node)로 살아 있는 노드 목록을 만들고, 주제를 노드 수로 나눠 샤딩합니다.
+ * - 주제별 페이지 커서(topic_cursor)를 DB에 저장합니다.
+ * - 틱마다 신규 저장소(워터마크 이후 created/pushed 창) 수집과 전체 기간 인기순 백필을 설정 비율로 나눕니다.
+ * - 주제 크롤링과 청소 작업은 DB 임대(crawl_lease)를 가진 노드만 실행합니다.
+ * 모든 시각 비교는 DB 시계(now())로 하므로 노드 간 시계 오차에 영향받지 않습니다.
+ */
+@Service
+public class CrawlCoordinator {
+
+    private static final int MAX_PAGE = 10;
+    // 같은 검색 창 페이지를 미완료로 다시 시도하는 최대 횟수 (계속 실패하는 저장소 하나에 커서가 묶이지 않도록)
+    private static final int MAX_INCOMPLETE_ATTEMPTS = 5;
+
+    private final CrawlNodeRepository crawlNodeRepository;
+    private final CrawlLeaseRepository crawlLeaseRepository;
+    private final TopicCursorRepository topicCursorRepository;
+    private final TransactionTemplate requiresNew;
+
+    private final String nodeId;
+    // 이 노드가 지금 가진 크롤링 임대 (이름 -> 토큰), 생존 신호마다 연장
+    private final Map<String, String> heldLeases = new ConcurrentHashMap<>();
+    // 검색 창 페이지별 연속 미완료 횟수
+    private final Map<String, Integer> incompleteAttempts = new ConcurrentHashMap<>();
+    private final long nodeTtlSeconds;
+    private final long crawlLeaseSeconds;
+
+    private final double newArrivalRatio;
+    private final String windowField;
+    private final int minStars;
+    private final long initialLookbackDays;
+    private final Duration minWindow;
+
+    public CrawlCoordinator(CrawlNodeRepository crawlNodeRepository,
+                            CrawlLeaseRepository crawlLeaseRepository,
+                            TopicCursorRepository topicCursorRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${crawl.node.ttl-seconds:45}") long nodeTtlSeconds,
+                            @Value("${crawl.lease.crawl-seconds:120}") long crawlLeaseSeconds,
+                            @Value("${crawl.incremental.new-arrival-ratio:0.7}") double newArrivalRatio,
+                            @Value("${crawl.incremental.field:created}") String windowField,
+                            @Value("${crawl.incremental.min-stars:5}") int minStars,
+                            @Value("${crawl.incremental.initial-lookback-days:30}") long initialLookbackDays,
+                            @Value("${crawl.incremental.min-window-minutes:30}") long minWindowMinutes) {
+        this.crawlNodeRepository = crawlNodeRepository;
+        this.crawlLeaseRepository = crawlLeaseRepository;
+        this.topicCursorRepository = topicCursorRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeTtlSeconds = nodeTtlSeconds;
+        this.crawlLeaseSeconds = crawlLeaseSeconds;
+        this.newArrivalRatio = Math.max(0, Math.min(1, newArrivalRatio));
+        this.windowField = windowField;
+        this.minStars = minStars;
+        this.initialLookbackDays = initialLookbackDays;
+        this.minWindow = Duration.ofMinutes(minWindowMinutes);
+        this.nodeId = resolveHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        System.out.println(">>> [클러스터] 노드 ID: " + nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 생존 신호를 보내고, 진행 중인 크롤링 임대를 연장하고, 오래된 노드 기록을 정리합니다.
+     * (README / Ollama / ComfyUI 호출로 틱이 임대 시간보다 길어져도 다른 노드가 주제를 가져가지 않음)
+     */
+    @Scheduled(fixedDelayString = "${crawl.node.heartbeat-ms:15000}")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void heartbeat() {
+        crawlNodeRepository.heartbeat(nodeId);
+        heldLeases.forEach((name, owner) -> {
+            if (crawlLeaseRepository.renew(name, owner, crawlLeaseSeconds) == 0) {
+                System.err.println(">>> [클러스터] 임대 연장 실패 (이미 만료됨): " + name);
+                heldLeases.remove(name, owner);
+            }
+        });
+        crawlNodeRepository.deleteStaleNodes(nodeTtlSeconds * 20);
+    }
+
+    /**
+     * 종료 시 노드 기록을 지워 다른 노드가 바로 재분배하도록 합니다.
+     */
+    @PreDestroy
+    public void leave() {
+        try {
+            crawlNodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            System.err.println(">>> [클러스터] 노드 해제 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 내 샤드 중 가장 오래 크롤링하지 않은 주제를 골라 임대를 잡고, 신규 검색 창 또는 백필 페이지를 배정합니다.
+     * 살아 있는 노드 목록이 바뀌면 샤드도 자동으로 다시 나뉩니다.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<TopicAssignment> claimNextTopic(List<String> topics) {
+        List<String> myTopics = shardFor(topics);
+        if (myTopics.isEmpty()) return Optional.empty();
+
+        // 커서가 없는(한 번도 크롤링하지 않은) 주제 먼저, 그다음 오래 크롤링하지 않은 순
+        List<String> crawled = topicCursorRepository.findTopicsByLastCrawledAt(myTopics);
+        List<String> candidates = new ArrayList<>(myTopics);
+        candidates.removeAll(crawled);
+        candidates.addAll(crawled);
+
+        for (String topic : candidates) {
+            String leaseName = TopicAssignment.leaseNameOf(topic);
+            String leaseOwner = newLeaseOwner();
+            if (crawlLeaseRepository.tryAcquire(leaseName, leaseOwner, crawlLeaseSeconds) == 0) continue;
+            heldLeases.put(leaseName, leaseOwner);
+
+            // 임대를 잡은 뒤에 읽어야 이전 임대 보유 노드가 커밋한 페이지/창 진행이 보임 (@Version으로 늦은 저장과의 충돌도 검출)
+            TopicCursor cursor = topicCursorRepository.findById(topic).orElseGet(() -> new TopicCursor(topic));
+            TopicAssignment assignment = assign(cursor, leaseOwner);
+            cursor.setLastCrawledAt(LocalDateTime.now());
+            topicCursorRepository.save(cursor);
+            return Optional.of(assignment);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 검색 창의 결과가 검색 상한(1000개)을 넘으면 창을 반으로 줄이고, 줄인 창을 반환합니다. (백필 배정이나 실패한 검색은 무시)
+     * 호출자는 바로 다시 검색합니다. 페이지 진행은 처리가 끝난 뒤 completeWindowPage로 기록합니다.
+     */
+    public Optional<TopicAssignment> recordWindowResult(TopicAssignment assignment, GitHubSearchResult result) {
+        SearchWindow window = assignment.window();
+        if (window == null || result.failed()) return Optional.empty();
+
+        Duration length = Duration.between(window.start(), window.end());
+        if (result.totalCount() > GitHubService.SEARCH_RESULT_CAP && length.compareTo(minWindow.multipliedBy(2)) >= 0) {
+            LocalDateTime middle = window.start().plus(length.dividedBy(2));
+            requiresNew.executeWithoutResult(status -> topicCursorRepository.findById(assignment.topic()).ifPresent(cursor -> {
+                cursor.setWindowEnd(middle);
+                cursor.setWindowPage(1);
+                topicCursorRepository.save(cursor);
+            }));
+            System.out.println(">>> [증분] \"" + assignment.topic() + "\" 결과 " + result.totalCount() + "개 > 상한, 검색 창 분할: "
+                    + window.start() + " ~ " + middle);
+            return Optional.of(new TopicAssignment(assignment.topic(), 1,
+                    new SearchWindow(window.field(), window.start(), middle, window.minStars()), assignment.leaseOwner()));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * 검색 창의 한 페이지를 처리한 결과를 커서에 반영합니다. (백필 배정이나 실패한 검색은 무시)
+     * - 모두 처리했으면 저장이 커밋된 뒤 다음 페이지로 넘기고, 창을 다 읽었으면 워터마크를 창 끝으로 올립니다.
+     * - 백엔드 실패로 처리하지 못한 저장소가 있으면 커서를 그대로 두어 다음 틱에 같은 페이지를 다시 검색합니다.
+     *   (이미 저장된 저장소는 중복 확인으로 건너뜀) 같은 페이지가 MAX_INCOMPLETE_ATTEMPTS번 연속 미완료면 넘어갑니다.
+     */
+    public void completeWindowPage(TopicAssignment assignment, GitHubSearchResult result, boolean complete) {
+        SearchWindow window = assignment.window();
+        if (window == null || result.failed()) return;
+
+        String pageKey = assignment.topic() + " " + assignment.qualifiers() + " #" + assignment.page();
+        if (!complete) {
+            int attempts = incompleteAttempts.merge(pageKey, 1, Integer::sum);
+            if (attempts < MAX_INCOMPLETE_ATTEMPTS) {
+                System.out.println(">>> [증분] \"" + assignment.topic() + "\" 처리하지 못한 저장소가 있어 커서 유지 (" + attempts + "회째)");
+                return;
+            }
+            System.err.println(">>> [증분] \"" + assignment.topic() + "\" 같은 페이지가 " + attempts + "회 연속 미완료, 다음 페이지로 넘어갑니다.");
+        }
+        incompleteAttempts.remove(pageKey);
+
+        long reachable = Math.min(result.totalCount(), GitHubService.SEARCH_RESULT_CAP);
+        boolean exhausted = result.repositories().isEmpty()
+                || (long) assignment.page() * GitHubService.SEARCH_PER_PAGE >= reachable;
+        afterCommit(() -> requiresNew.executeWithoutResult(status -> topicCursorRepository.findById(assignment.topic()).ifPresent(cursor -> {
+            if (exhausted) {
+                cursor.setWatermark(window.end());
+                cursor.setWindowStart(null);
+                cursor.setWindowEnd(null);
+                cursor.setWindowPage(1);
+            } else {
+                cursor.setWindowPage(assignment.page() + 1);
+            }
+            topicCursorRepository.save(cursor);
+        })));
+    }
+
+    /**
+     * 주제 크롤링 임대를 반납합니다. (이 배정의 토큰으로 잡은 임대만 지움)
+     * 호출자 트랜잭션이 있으면 저장이 끝난(커밋/롤백) 뒤에 반납해, 다른 노드가 미커밋 상태를 보지 않도록 합니다.
+     */
+    public void releaseTopic(TopicAssignment assignment) {
+        Runnable release = () -> {
+            heldLeases.remove(assignment.leaseName(), assignment.leaseOwner());
+            requiresNew.executeWithoutResult(status ->
+                    crawlLeaseRepository.release(assignment.leaseName(), assignment.leaseOwner()));
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+
+    /**
+     * 이름이 붙은 임대를 시도합니다. 반납하지 않으면 ttlSeconds 동안 (이 노드를 포함해) 다시 실행하지 않습니다.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquireLease(String name, long ttlSeconds) {
+        return crawlLeaseRepository.tryAcquire(name, newLeaseOwner(), ttlSeconds) > 0;
+    }
+
+    /**
+     * 틱 카운터로 신규/백필을 정하고 배정을 만듭니다. 신규 차례라도 워터마크 이후 쌓인 기간이 짧으면 백필합니다.
+     */
+    private TopicAssignment assign(TopicCursor cursor, String leaseOwner) {
+        long tick = cursor.getTickCount();
+        cursor.setTickCount(tick + 1);
+
+        if (isNewArrivalTurn(tick)) {
+            SearchWindow window = openWindow(cursor);
+            if (window != null) return new TopicAssignment(cursor.getTopic(), cursor.getWindowPage(), window, leaseOwner);
+        }
+
+        TopicAssignment assignment = new TopicAssignment(cursor.getTopic(), cursor.getNextPage(), null, leaseOwner);
+        int nextPage = cursor.getNextPage() + 1;
+        cursor.setNextPage(nextPage > MAX_PAGE ? 1 : nextPage);
+        return assignment;
+    }
+
+    /**
+     * floor((n+1)r) > floor(nr)이면 신규 차례 (틱 n개 중 정확히 r 비율이 고르게 신규로 배분됨)
+     */
+    private boolean isNewArrivalTurn(long tick) {
+        return Math.floor((tick + 1) * newArrivalRatio) > Math.floor(tick * newArrivalRatio);
+    }
+
+    /**
+     * 진행 중인 검색 창을 돌려주거나, 없으면 [워터마크, 현재]로 새 창을 엽니다.
+     */
+    private SearchWindow openWindow(TopicCursor cursor) {
+        if (cursor.getWindowStart() == null) {
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            LocalDateTime start = cursor.getWatermark() != null ? cursor.getWatermark() : now.minusDays(initialLookbackDays);
+            if (Duration.between(start, now).compareTo(minWindow) < 0) return null;
+            cursor.setWindowStart(start);
+            cursor.setWindowEnd(now);
+            cursor.setWindowPage(1);
+        }
+        return new SearchWindow(windowField, cursor.getWindowStart(), cursor.getWindowEnd(), minStars);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 정렬된 노드 목록에서 내 순번을 구해, 주제 i를 (i % 노드 수) 번째 노드에 배정합니다.
+     */
+    private List<String> shardFor(List<String> topics) {
+        List<String> liveNodes = crawlNodeRepository.findLiveNodeIds(nodeTtlSeconds);
+        int myIndex = liveNodes.indexOf(nodeId);
+        if (myIndex < 0) {
+            // 아직 생존 신호가 반영되지 않은 경우: 단독 노드로 간주하지 않고 이번 틱은 건너뜀
+            return List.of();
+        }
+        List<String> myTopics = new ArrayList<>();
+        for (int i = 0; i < topics.size(); i++) {
+            if (i % liveNodes.size() == myIndex) myTopics.add(topics.get(i));
+        }
+        return myTopics;
+    }
+
+    /**
+     * 임대마다 새 토큰을 만들어, 같은 노드의 겹친 틱끼리도 임대를 공유하지 않게 합니다.
+     */
+    private String newLeaseOwner() {
+        return nodeId + "#" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
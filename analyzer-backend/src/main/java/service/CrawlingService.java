@@ -1,6 +1,5 @@
 package com.myproject.analyzerbackend.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.myproject.analyzerbackend.domain.RepositoryProfile;
 import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
 import jakarta.persistence.EntityManager;
@@ -9,16 +8,25 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+// 검색한 페이지와 그 페이지를 검색한 최종 배정 (창이 분할되었으면 줄어든 창)
+record SearchedPage(TopicAssignment assignment, GitHubSearchResult result) {}
+
 @EnableAsync
 @Service
 public class CrawlingService {
@@ -32,8 +40,18 @@ public class CrawlingService {
     private final OllamaService ollamaService;
     private final ComfyUiService comfyUiService;
     private final GitHubService gitHubService;
+    private final TopicFacetService topicFacetService;
+    private final CrawlCoordinator crawlCoordinator;
+    private final SemanticSearchService semanticSearchService;
+    private final ProfileQueryCache profileQueryCache;
+    private final GallerySnapshotService gallerySnapshotService;
+    private final ClusterChangeService clusterChangeService;
+    private final TransactionTemplate transactionTemplate;
 
     private static final int BATCH_SIZE = 5;
+    private static final long CLEANUP_LEASE_SECONDS = 60 * 60;
+    // 한 틱에서 검색 창을 줄여 다시 검색하는 최대 횟수 (남은 분할은 다음 틱에 이어서)
+    private static final int MAX_WINDOW_SPLITS = 8;
     private static final Pattern CJK_PATTERN = Pattern.compile("[\\u4E00-\\u9FFF\\u3040-\\u30FF]");
     private static final Pattern GITHUB_URL_PATTERN = Pattern.compile("https://github\\.com/([^/]+)/([^/]+)");
 
@@ -42,17 +60,31 @@ public class CrawlingService {
 
     public CrawlingService(OllamaService ollamaService,
                            ComfyUiService comfyUiService,
-                           GitHubService gitHubService) {
+                           GitHubService gitHubService,
+                           TopicFacetService topicFacetService,
+                           CrawlCoordinator crawlCoordinator,
+                           SemanticSearchService semanticSearchService,
+                           ProfileQueryCache profileQueryCache,
+                           GallerySnapshotService gallerySnapshotService,
+                           ClusterChangeService clusterChangeService,
+                           PlatformTransactionManager transactionManager) {
         this.ollamaService = ollamaService;
         this.comfyUiService = comfyUiService;
         this.gitHubService = gitHubService;
+        this.topicFacetService = topicFacetService;
+        this.crawlCoordinator = crawlCoordinator;
+        this.semanticSearchService = semanticSearchService;
+        this.profileQueryCache = profileQueryCache;
+        this.gallerySnapshotService = gallerySnapshotService;
+        this.clusterChangeService = clusterChangeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * 단일 GitHub URL 즉시 분석 (비동기)
+     * 분석(GitHub / Ollama / ComfyUI 대기 포함) 동안 DB 커넥션을 잡지 않도록 트랜잭션은 저장할 때만 엽니다.
      */
     @Async
-    @Transactional
     public void analyzeSingleUrl(String githubUrl) {
         System.out.println("####### [즉시 분석] " + githubUrl + " 시작... #######");
 
@@ -70,22 +102,45 @@ public class CrawlingService {
             return;
         }
 
+        RepositoryProfile profile;
+        try {
+            profile = analyzeRepository(owner, repoName, githubUrl, "On-Demand", GpuWork.interactive(fullRepoName));
+        } catch (CancellationException e) {
+            System.out.println("  - 분석 요청이 취소되었습니다: " + fullRepoName);
+            return;
+        } catch (BackendCallException e) {
+            System.err.println("  - 분석 중단 (" + e.getBackend() + " " + e.getReason() + "): " + fullRepoName);
+            return;
+        }
+        if (profile == null) return;
+
+        // 같은 클래스 안의 호출은 @Transactional 프록시를 거치지 않으므로 템플릿으로 트랜잭션을 엶
+        transactionTemplate.execute(status -> saveProfiles(List.of(profile)));
+        System.out.println("####### [즉시 분석] 완료: " + fullRepoName + " #######");
+    }
+
+    /**
+     * 단일 저장소를 분석하여 프로필을 만듭니다. (저장은 호출자가 담당)
+     */
+    public RepositoryProfile analyzeRepository(String owner, String repoName, String repoUrl, String topic, GpuWork work) {
+        String fullRepoName = owner + "/" + repoName;
+
         String readmeContent = gitHubService.getReadmeContent(owner, repoName);
         if (readmeContent == null || readmeContent.isEmpty()) {
             System.out.println("  - README가 없습니다: " + fullRepoName);
-            return;
+            return null;
         }
 
-        ProjectAnalysisResult analysisResult = ollamaService.analyzeReadme(readmeContent);
+        ProjectAnalysisResult analysisResult = ollamaService.analyzeReadme(readmeContent, work);
         if (analysisResult == null) {
             System.err.println("  - Ollama 분석 실패: " + fullRepoName);
-            return;
+            return null;
         }
 
         RepositoryProfile profile = new RepositoryProfile();
         profile.setRepoName(fullRepoName);
-        profile.setRepoUrl(githubUrl);
-        profile.setTopic("On-Demand");
+        profile.setRepoUrl(repoUrl);
+        profile.setTopic(topic);
 
         String title = analysisResult.projectTitle();
         String summary = analysisResult.projectSummary();
@@ -98,34 +153,77 @@ public class CrawlingService {
 
         if (positivePrompt != null) {
             try {
-                String imageUrl = comfyUiService.generateImageForHotdeal(positivePrompt, NEGATIVE_PROMPT);
+                String imageUrl = comfyUiService.generateImageForHotdeal(positivePrompt, NEGATIVE_PROMPT, work);
                 profile.setImageUrl(imageUrl);
                 System.out.println("  - 이미지 생성 성공: " + profile.getRepoName());
+            } catch (CancellationException e) {
+                // 취소된 요청은 이미지 없이 저장하지 않고 호출자에게 알림
+                throw e;
             } catch (Exception e) {
                 System.err.println("    - 이미지 생성 오류: " + e.getMessage());
             }
         }
+        return profile;
+    }
 
-        repositoryProfileRepository.save(profile);
-        System.out.println("####### [즉시 분석] 완료: " + fullRepoName + " #######");
+    /**
+     * 분석된 프로필들을 한 트랜잭션에서 배치 저장합니다.
+     * 분석하는 동안 다른 노드/가져오기가 같은 저장소를 먼저 저장했을 수 있으므로 저장 직전에 다시 확인합니다.
+     * @return 실제로 저장한 개수
+     */
+    @Transactional
+    public int saveProfiles(List<RepositoryProfile> profiles) {
+        if (profiles.isEmpty()) return 0;
+        Set<String> existing = new HashSet<>(repositoryProfileRepository.findExistingRepoNames(
+                profiles.stream().map(RepositoryProfile::getRepoName).toList()));
+        List<RepositoryProfile> fresh = profiles.stream().filter(p -> !existing.contains(p.getRepoName())).toList();
+        if (fresh.isEmpty()) return 0;
+
+        repositoryProfileRepository.saveAll(fresh);
+        topicFacetService.recordSaved(fresh);
+        semanticSearchService.recordSaved(fresh);
+        profileQueryCache.recordSaved(fresh);
+        gallerySnapshotService.recordChanged();
+        clusterChangeService.recordChange();
+        return fresh.size();
+    }
+
+    /**
+     * 프로필 하나를 삭제합니다. 패싯/의미 검색/캐시/스냅샷 갱신과 클러스터 변경 버전 기록이 삭제와 같은 트랜잭션에서 커밋됩니다.
+     * @return 삭제할 프로필이 없으면 false
+     */
+    @Transactional
+    public boolean deleteProfile(Long id) {
+        Optional<RepositoryProfile> profile = repositoryProfileRepository.findById(id);
+        if (profile.isEmpty()) return false;
+
+        repositoryProfileRepository.delete(profile.get());
+        topicFacetService.recordDeleted(profile.get());
+        semanticSearchService.recordDeleted(id);
+        profileQueryCache.recordDeleted(profile.get());
+        gallerySnapshotService.recordChanged();
+        clusterChangeService.recordChange();
+        return true;
     }
 
     /**
      * 이미지 재생성 (Re-generate)
+     * (@Async 프록시는 Future가 아닌 반환값을 null로 돌려주므로 CompletableFuture로 감쌉니다)
      */
     @Async
-    @Transactional
-    public boolean regenerateImageForProfile(Long id) {
+    public CompletableFuture<Boolean> regenerateImageForProfile(Long id) {
         System.out.println("####### [이미지 재생성] 시작 (ID: " + id + ") #######");
 
-        Optional<RepositoryProfile> optionalProfile = repositoryProfileRepository.findById(id);
-        if (optionalProfile.isEmpty()) {
+        // ComfyUI 대기열에서 기다리는 동안 DB 커넥션을 잡지 않도록 읽기/쓰기를 각각 짧은 트랜잭션으로 나눔
+        // (읽기 전용이 아닌 트랜잭션 = primary이므로 방금 만든 프로필도 보임)
+        Optional<String> optionalTitle = transactionTemplate.execute(status ->
+                repositoryProfileRepository.findById(id).map(RepositoryProfile::getProjectTitle));
+        if (optionalTitle == null || optionalTitle.isEmpty()) {
             System.err.println("  - 실패: ID " + id + "를 찾을 수 없습니다.");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
-        RepositoryProfile profile = optionalProfile.get();
 
-        String title = profile.getProjectTitle();
+        String title = optionalTitle.get();
         if (title == null || title.isEmpty()) title = "Software Project";
 
         String [] styles = {
@@ -141,54 +239,106 @@ public class CrawlingService {
         String positivePrompt = "masterpiece, best quality, 4k, " + randomStyle + ", " + title;
 
         try {
-            String imageUrl = comfyUiService.generateImageForHotdeal(positivePrompt, NEGATIVE_PROMPT);
-            profile.setImageUrl(imageUrl);
-            repositoryProfileRepository.save(profile);
-            System.out.println("  - 이미지 재생성 성공: " + profile.getRepoName());
-            return true;
+            String imageUrl = comfyUiService.generateImageForHotdeal(positivePrompt, NEGATIVE_PROMPT, GpuWork.regenerate(id));
+            Boolean saved = transactionTemplate.execute(status -> {
+                Optional<RepositoryProfile> profile = repositoryProfileRepository.findById(id);
+                // 기다리는 동안 삭제되었으면 저장하지 않음
+                if (profile.isEmpty()) return false;
+                profile.get().setImageUrl(imageUrl);
+                repositoryProfileRepository.save(profile.get());
+                gallerySnapshotService.recordChanged();
+                clusterChangeService.recordChange();
+                System.out.println("  - 이미지 재생성 성공: " + profile.get().getRepoName());
+                return true;
+            });
+            return CompletableFuture.completedFuture(Boolean.TRUE.equals(saved));
+        } catch (CancellationException e) {
+            System.out.println("  - 이미지 재생성 요청이 취소되었습니다 (ID: " + id + ")");
+            return CompletableFuture.completedFuture(false);
         } catch (Exception e) {
             System.err.println("  - 이미지 재생성 오류: " + e.getMessage());
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
     }
 
     /**
      * 자동 분석 스케줄러
+     * 틱 전체가 아니라 배치 저장만 트랜잭션으로 묶어, 슬롯 대기와 분석 중에는 primary 커넥션을 잡지 않습니다.
      */
     @Scheduled(cron = "0 * * * * *")
-    @Transactional
     public void analyzeRepositories() {
         if (!comfyUiService.isWorkflowLoaded()) {
             System.err.println(">>> ComfyUI 워크플로우 로드 실패"); return;
         }
 
-        GitHubSearchResult searchResult = gitHubService.searchRepositories();
+        // 내 샤드에서 주제 하나를 임대 (다른 레플리카와 같은 주제/페이지를 중복 크롤링하지 않음)
+        Optional<TopicAssignment> assignment = crawlCoordinator.claimNextTopic(gitHubService.getSearchTopics());
+        if (assignment.isEmpty()) return;
+
+        try {
+            crawlTopic(assignment.get());
+        } finally {
+            crawlCoordinator.releaseTopic(assignment.get());
+        }
+    }
+
+    private void crawlTopic(TopicAssignment assignment) {
+        SearchedPage searchedPage = search(assignment);
+        GitHubSearchResult searchResult = searchedPage.result();
         String currentTopic = searchResult.topic();
-        List<JsonNode> repositories = searchResult.repositories();
+        List<GitHubRepoSummary> repositories = searchResult.repositories();
 
-        if (repositories.isEmpty()) return;
+        if (repositories.isEmpty()) {
+            crawlCoordinator.completeWindowPage(searchedPage.assignment(), searchResult, true);
+            return;
+        }
 
-        System.out.println(">>> 스케줄러 실행 (주제: " + currentTopic + ", 대상: " + repositories.size() + "개)");
+        System.out.println(">>> 스케줄러 실행 (주제: " + currentTopic + ", 대상: " + repositories.size() + "개, "
+                + (assignment.window() != null ? "신규 " + assignment.qualifiers() : "백필") + ")");
+        int duplicates = 0;
+        // README 요청 / Ollama 분석이 일시적으로 실패해 처리하지 못한 저장소가 있으면 false (커서를 넘기지 않고 다시 시도)
+        boolean complete = true;
 
         List<RepositoryProfile> profilesToSave = new ArrayList<>();
 
-        for (JsonNode repo : repositories) {
-            String owner = repo.path("owner").path("login").asText(null);
-            String repoName = repo.path("name").asText(null);
-            String repoUrl = repo.path("html_url").asText(null);
+        for (GitHubRepoSummary repo : repositories) {
+            String owner = repo.owner();
+            String repoName = repo.name();
+            String repoUrl = repo.htmlUrl();
             String fullRepoName = owner + "/" + repoName;
 
             if (owner == null || repoName == null) continue;
 
-            if (repositoryProfileRepository.findByRepoName(fullRepoName).isPresent()) continue;
+            if (repositoryProfileRepository.findByRepoName(fullRepoName).isPresent()) {
+                duplicates++;
+                continue;
+            }
 
             String readmeContent = gitHubService.getReadmeContent(owner, repoName);
-            if (readmeContent == null || readmeContent.isEmpty()) continue;
+            if (readmeContent == null) {
+                complete = false;
+                continue;
+            }
+            if (readmeContent.isEmpty()) continue;
 
-            if (isReadmeNonKoreanOrEnglish(readmeContent, repo.path("language").asText(""))) continue;
+            if (isReadmeNonKoreanOrEnglish(readmeContent, repo.language() != null ? repo.language() : "")) continue;
 
-            ProjectAnalysisResult analysisResult = ollamaService.analyzeReadme(readmeContent);
-            if (analysisResult == null) continue;
+            GpuWork work = GpuWork.background(fullRepoName);
+            ProjectAnalysisResult analysisResult;
+            try {
+                analysisResult = ollamaService.analyzeReadme(readmeContent, work);
+            } catch (CancellationException e) {
+                continue;
+            } catch (BackendCallException e) {
+                // Ollama가 차단 중이면 이번 틱의 나머지 저장소도 실패하므로 중단
+                System.err.println("    - 크롤링 중단 (" + e.getBackend() + " " + e.getReason() + ")");
+                complete = false;
+                break;
+            }
+            if (analysisResult == null) {
+                complete = false;
+                continue;
+            }
 
             RepositoryProfile profile = new RepositoryProfile();
             profile.setRepoName(fullRepoName);
@@ -199,15 +349,17 @@ public class CrawlingService {
             String summary = analysisResult.projectSummary();
             String concept = analysisResult.imageConcept();
 
-            profile.setProjectTitle(title != null ? title : repo.path("description").asText(fullRepoName));
+            profile.setProjectTitle(title != null ? title : (repo.description() != null ? repo.description() : fullRepoName));
             profile.setTechStackSummary(summary != null ? summary : "요약 추출 실패");
 
             String positivePrompt = createSuperPrompt(title, concept);
 
             if (positivePrompt != null) {
                 try {
-                    String imageUrl = comfyUiService.generateImageForHotdeal(positivePrompt, NEGATIVE_PROMPT);
+                    String imageUrl = comfyUiService.generateImageForHotdeal(positivePrompt, NEGATIVE_PROMPT, work);
                     profile.setImageUrl(imageUrl);
+                } catch (CancellationException e) {
+                    continue;
                 } catch (Exception e) {
                     System.err.println("    - 이미지 생성 오류: " + e.getMessage());
                 }
@@ -215,10 +367,28 @@ public class CrawlingService {
             profilesToSave.add(profile);
         }
 
+        if (duplicates > 0) {
+            System.out.println(">>> 이미 수집된 저장소 " + duplicates + "/" + repositories.size() + "개 건너뜀.");
+        }
         if (!profilesToSave.isEmpty()) {
-            repositoryProfileRepository.saveAll(profilesToSave);
+            transactionTemplate.execute(status -> saveProfiles(profilesToSave));
             System.out.println(">>> " + profilesToSave.size() + "개 분석 완료 및 저장.");
         }
+        crawlCoordinator.completeWindowPage(searchedPage.assignment(), searchResult, complete);
+    }
+
+    /**
+     * 배정된 주제/창을 검색합니다. 신규 검색 창의 결과가 검색 상한을 넘으면 창을 줄여 다시 검색합니다.
+     */
+    private SearchedPage search(TopicAssignment assignment) {
+        int splits = 0;
+        while (true) {
+            GitHubSearchResult result = gitHubService.searchRepositories(assignment.topic(), assignment.qualifiers(), assignment.page());
+            Optional<TopicAssignment> narrowed = crawlCoordinator.recordWindowResult(assignment, result);
+            if (narrowed.isEmpty()) return new SearchedPage(assignment, result);
+            if (++splits >= MAX_WINDOW_SPLITS) return new SearchedPage(assignment, new GitHubSearchResult(assignment.topic(), List.of(), -1));
+            assignment = narrowed.get();
+        }
     }
 
     private String createSuperPrompt(String title, String conceptKeywords) {
@@ -269,10 +439,22 @@ public class CrawlingService {
     @Scheduled(cron = "0 0 0 * * *")
     @Transactional
     public void cleanupOldData() {
+        // 하루 한 번, 클러스터 전체에서 한 노드만 실행
+        if (!crawlCoordinator.tryAcquireLease("cleanup", CLEANUP_LEASE_SECONDS)) {
+            System.out.println(">>> [청소] 다른 노드가 실행 중이므로 건너뜀.");
+            return;
+        }
         try {
             LocalDateTime threshold = LocalDateTime.now().minusDays(30);
             int deletedCount = entityManager.createQuery("DELETE FROM RepositoryProfile rp WHERE rp.createdAt < :threshold")
                     .setParameter("threshold", threshold).executeUpdate();
+            if (deletedCount > 0) {
+                topicFacetService.recordBulkDeleted();
+                semanticSearchService.recordBulkDeleted();
+                profileQueryCache.recordBulkDeleted();
+                gallerySnapshotService.recordChanged();
+                clusterChangeService.recordChange();
+            }
             System.out.println(">>> [청소] " + deletedCount + "개 삭제 완료.");
         } catch (Exception e) { e.printStackTrace(); }
     }
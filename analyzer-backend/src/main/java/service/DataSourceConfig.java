@@ -0,0 +1,68 @@
+package com.myproject.analyzerbackend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * primary(쓰기) + 읽기 레플리카 데이터소스 구성
+ * 레플리카 URL이 없으면 모든 쿼리가 primary로 갑니다. (AOT 빌드에서도 같은 빈 구성을 유지하도록 조건부 빈 대신 항상 등록)
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // 1. primary: spring.datasource.* / spring.datasource.hikari.* 그대로 사용
+    @Bean
+    @Qualifier("primaryDataSource")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // 2. 레플리카 풀 (레플리카마다 별도 풀, 크기는 datasource.replica.maximum-pool-size)
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            DataSourceProperties properties,
+            @Value("${datasource.replica.urls:}") List<String> urls,
+            @Value("${datasource.replica.username:}") String username,
+            @Value("${datasource.replica.password:}") String password,
+            @Value("${datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${datasource.replica.max-lag-seconds:10}") double maxLagSeconds) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) continue;
+            String name = "replica-" + replicas.size();
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+        System.out.println(">>> [DB 라우팅] 읽기 레플리카 " + replicas.size() + "개");
+        return new ReplicaRoutingDataSource(primary, replicas, maxLagSeconds);
+    }
+
+    // 3. JPA / JdbcTemplate이 쓰는 데이터소스 (readOnly 플래그가 정해진 뒤 실제 커넥션을 얻도록 지연)
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,236 @@
+package com.myproject.analyzerbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myproject.analyzerbackend.domain.RepositoryProfile;
+import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import com.myproject.analyzerbackend.domain.TopicFacet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// 한 번의 발행 내용: 토픽 패싯과 전체 / 토픽별 페이지 본문 (트랜잭션 안에서 모두 읽고, 파일은 트랜잭션 밖에서 씀)
+record GallerySnapshot(List<TopicFacet> facets, List<Map<String, Object>> projectPages,
+                       Map<String, List<Map<String, Object>>> topicPages) {}
+
+/**
+ * 갤러리 첫 화면용 정적 JSON 스냅샷을 발행합니다. (프론트엔드 nginx가 /snapshots/ 경로로 그대로 서빙)
+ * - projects/page-{n}.json: 전체 목록 앞쪽 N페이지 (최신 분석순)
+ * - topics/{토픽}/page-{n}.json: 토픽별 앞쪽 N페이지
+ * - topics.json: 사이드바 토픽 패싯
+ * 저장/삭제/청소 시 변경 표시만 하고, 주기적으로 한 번에 다시 씁니다.
+ * 패싯과 페이지는 한 트랜잭션(REPEATABLE READ, primary)에서 DB로부터 읽어 서로 어긋나지 않게 하고,
+ * 파일 쓰기는 트랜잭션이 끝난 뒤에 합니다. (노드 로컬 패싯 캐시는 다른 노드의 쓰기를 늦게 볼 수 있으므로 쓰지 않음)
+ * 각 파일은 임시 파일에 쓴 뒤 rename으로 교체하며, nginx gzip_static용 .gz 파일도 함께 만듭니다.
+ */
+@Service
+public class GallerySnapshotService {
+
+    // 프론트엔드 기본 정렬 / 페이지 크기와 같아야 스냅샷이 쓰임
+    private static final Sort SNAPSHOT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private final RepositoryProfileRepository repositoryProfileRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+
+    private final Path snapshotDir;
+    private final int pages;
+    private final int pageSize;
+
+    private volatile boolean dirty = false;
+
+    public GallerySnapshotService(RepositoryProfileRepository repositoryProfileRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${snapshot.dir:./data/snapshots}") String snapshotDir,
+                                  @Value("${snapshot.pages:3}") int pages,
+                                  @Value("${snapshot.page-size:12}") int pageSize) {
+        this.repositoryProfileRepository = repositoryProfileRepository;
+        this.objectMapper = objectMapper;
+        // 방금 커밋된 쓰기를 봐야 하므로 읽기 전용이 아닌 트랜잭션(= primary), 여러 쿼리가 같은 시점을 보도록 REPEATABLE READ
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotDir = Path.of(snapshotDir);
+        this.pages = pages;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 스냅샷에 보이는 데이터가 바뀌었음을 표시합니다. (트랜잭션 커밋 이후)
+     */
+    public void recordChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty = true;
+                }
+            });
+        } else {
+            dirty = true;
+        }
+    }
+
+    /**
+     * 기동 후 첫 주기에 한 번 발행합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishOnStartup() {
+        dirty = true;
+    }
+
+    /**
+     * 변경이 있으면 스냅샷을 다시 씁니다.
+     */
+    @Scheduled(fixedDelayString = "${snapshot.publish-interval-ms:10000}")
+    public void publishIfDirty() {
+        if (!dirty) return;
+        dirty = false;
+        try {
+            publish();
+        } catch (Exception e) {
+            dirty = true;
+            System.err.println(">>> [스냅샷] 발행 실패: " + e.getMessage());
+        }
+    }
+
+    private void publish() throws IOException {
+        long start = System.currentTimeMillis();
+        GallerySnapshot snapshot = readTransaction.execute(status -> readSnapshot());
+        long readMillis = System.currentTimeMillis() - start;
+
+        Files.createDirectories(snapshotDir);
+
+        // 1. 토픽 패싯 (사이드바)
+        writeJson(snapshotDir.resolve("topics.json"), snapshot.facets());
+
+        // 2. 전체 목록
+        int files = 1 + writePages(snapshotDir.resolve("projects"), snapshot.projectPages());
+
+        // 3. 토픽별 목록
+        for (Map.Entry<String, List<Map<String, Object>>> topic : snapshot.topicPages().entrySet()) {
+            files += writePages(snapshotDir.resolve("topics").resolve(topic.getKey()), topic.getValue());
+        }
+        removeStaleTopics(snapshotDir.resolve("topics"), snapshot.topicPages().keySet());
+
+        System.out.println(">>> [스냅샷] " + files + "개 파일 발행 완료 (조회 " + readMillis + "ms / 전체 "
+                + (System.currentTimeMillis() - start) + "ms)");
+    }
+
+    /**
+     * 패싯과 전체 / 토픽별 앞쪽 페이지를 읽습니다. (파일 이름으로 쓸 수 없는 토픽은 API로만 제공)
+     */
+    private GallerySnapshot readSnapshot() {
+        List<TopicFacet> facets = repositoryProfileRepository.aggregateTopicFacets().stream()
+                .sorted(TopicFacetService.FACET_ORDER).toList();
+        List<Map<String, Object>> projectPages = readPages(repositoryProfileRepository::findAll);
+
+        Map<String, List<Map<String, Object>>> topicPages = new LinkedHashMap<>();
+        for (TopicFacet facet : facets) {
+            String topic = facet.topic();
+            if (!isSafeDirectoryName(topic)) continue;
+            topicPages.put(topic, readPages(pageable -> repositoryProfileRepository.findByTopic(topic, pageable)));
+        }
+        return new GallerySnapshot(facets, projectPages, topicPages);
+    }
+
+    /**
+     * 앞쪽 pages개 페이지의 응답 본문을 만듭니다. (두 번째 페이지부터는 비어 있으면 중단)
+     */
+    private List<Map<String, Object>> readPages(Function<Pageable, Page<RepositoryProfile>> query) {
+        List<Map<String, Object>> bodies = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            Page<RepositoryProfile> result = query.apply(PageRequest.of(page, pageSize, SNAPSHOT_SORT));
+            if (page > 0 && result.getContent().isEmpty()) break;
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("content", result.getContent());
+            body.put("number", result.getNumber());
+            body.put("size", result.getSize());
+            body.put("totalElements", result.getTotalElements());
+            body.put("totalPages", result.getTotalPages());
+            body.put("generatedAt", LocalDateTime.now());
+            bodies.add(body);
+        }
+        return bodies;
+    }
+
+    /**
+     * 페이지 파일을 쓰고, 전체 페이지 수가 줄어 남은 예전 페이지 파일은 지웁니다.
+     */
+    private int writePages(Path dir, List<Map<String, Object>> bodies) throws IOException {
+        Files.createDirectories(dir);
+        for (int page = 0; page < bodies.size(); page++) {
+            writeJson(dir.resolve("page-" + page + ".json"), bodies.get(page));
+        }
+        for (int page = bodies.size(); page < pages; page++) {
+            Files.deleteIfExists(dir.resolve("page-" + page + ".json"));
+            Files.deleteIfExists(dir.resolve("page-" + page + ".json.gz"));
+        }
+        return bodies.size();
+    }
+
+    /**
+     * JSON과 .gz를 각각 임시 파일에 쓴 뒤 rename으로 교체합니다. (nginx가 쓰다 만 파일을 읽지 않음)
+     */
+    private void writeJson(Path target, Object value) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        Path gzipTarget = target.resolveSibling(target.getFileName() + ".gz");
+
+        Path gzipTemp = Files.createTempFile(target.getParent(), ".snapshot-", ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipTemp))) {
+            out.write(json);
+        }
+        Path jsonTemp = Files.createTempFile(target.getParent(), ".snapshot-", ".tmp");
+        Files.write(jsonTemp, json);
+
+        // createTempFile은 소유자 전용 권한이므로 nginx(다른 컨테이너 사용자)가 읽을 수 있게 교체 전에 완화
+        gzipTemp.toFile().setReadable(true, false);
+        jsonTemp.toFile().setReadable(true, false);
+        Files.move(gzipTemp, gzipTarget, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(jsonTemp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void removeStaleTopics(Path topicsDir, Set<String> publishedTopics) throws IOException {
+        if (!Files.isDirectory(topicsDir)) return;
+        try (Stream<Path> dirs = Files.list(topicsDir)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                if (publishedTopics.contains(dir.getFileName().toString())) continue;
+                try (Stream<Path> files = Files.list(dir)) {
+                    for (Path file : files.toList()) Files.deleteIfExists(file);
+                }
+                Files.deleteIfExists(dir);
+            }
+        }
+    }
+
+    private boolean isSafeDirectoryName(String topic) {
+        return topic != null && !topic.isBlank() && !topic.startsWith(".")
+                && !topic.contains("/") && !topic.contains("\\");
+    }
+}
@@ -1,29 +1,52 @@
 package com.myproject.analyzerbackend.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
-// 검색 결과와 주제를 담는 레코드
-record GitHubSearchResult(String topic, List<JsonNode> repositories) {}
+// 검색 결과 중 파이프라인이 실제로 쓰는 필드만 담는 레코드
+record GitHubRepoSummary(String owner, String name, String htmlUrl, String description, String language) {}
+
+// 검색 결과와 주제를 담는 레코드 (totalCount: 검색 조건에 맞는 전체 개수, 요청 실패 시 -1)
+record GitHubSearchResult(String topic, List<GitHubRepoSummary> repositories, long totalCount) {
+    boolean failed() {
+        return totalCount < 0;
+    }
+}
 
 @Service
 public class GitHubService {
 
     private final WebClient gitHubWebClient;
     private final ObjectMapper objectMapper;
+    private final BackendGuard githubGuard;
+
+    // README 원문 미디어 타입 (base64 JSON 봉투 없이 본문만)
+    private static final MediaType GITHUB_RAW = MediaType.parseMediaType("application/vnd.github.raw");
+
+    // 분석에 쓰는 최대 글자 수(OllamaService) x UTF-8 최대 4바이트 + 잘림 판단용 여유
+    private static final long README_BYTE_BUDGET = OllamaService.MAX_README_LENGTH * 4L + 16;
+
+    // 검색 페이지 크기 / 검색 API가 돌려주는 최대 결과 수 (이 이상은 페이지로도 접근 불가)
+    static final int SEARCH_PER_PAGE = 5;
+    static final int SEARCH_RESULT_CAP = 1000;
+    // 검색 응답을 파싱하면서 미리 요청해 둘 버퍼 수
+    private static final int SEARCH_PREFETCH_BUFFERS = 4;
 
     // [V42] 24개 핫한 주제 목록
     private static final List<String> SEARCH_TOPICS = List.of(
@@ -32,83 +55,90 @@ public class GitHubService {
             "Docker", "Kubernetes", "Terraform", "Spring Boot", "Next.js", "Django", "Flutter", "FastAPI"
     );
 
-    private static final AtomicInteger topicIndex = new AtomicInteger(0);
-
-    // [V53] 주제별 페이지 번호 기억 장치
-    private final Map<String, Integer> topicPageMap = new ConcurrentHashMap<>();
-
     public GitHubService(@Qualifier("githubWebClient") WebClient gitHubWebClient,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         @Qualifier("githubGuard") BackendGuard githubGuard) {
         this.gitHubWebClient = gitHubWebClient;
         this.objectMapper = objectMapper;
+        this.githubGuard = githubGuard;
     }
 
     /**
-     * GitHub API로 인기 저장소를 검색합니다.
+     * 크롤링 대상 주제 목록 (샤딩 기준 순서)
      */
-    public GitHubSearchResult searchRepositories() {
-        // 1. 이번에 검색할 주제 선택 (순환)
-        int currentTopicIdx = topicIndex.getAndIncrement() % SEARCH_TOPICS.size();
-        String topic = SEARCH_TOPICS.get(currentTopicIdx);
+    public List<String> getSearchTopics() {
+        return SEARCH_TOPICS;
+    }
 
-        // 2. 이 주제의 '현재 페이지' 가져오기 (기록 없으면 1페이지부터)
-        int page = topicPageMap.getOrDefault(topic, 1);
+    /**
+     * GitHub API로 인기 저장소를 검색합니다.
+     * 주제와 페이지는 CrawlCoordinator가 DB 커서를 기준으로 배정합니다.
+     */
+    public GitHubSearchResult searchRepositories(String topic, int page) {
+        return searchRepositories(topic, "", page);
+    }
 
-        System.out.println(">>> GitHub API: 인기 저장소 검색 시작... (주제: \"" + topic + "\", 페이지: " + page + ")");
+    /**
+     * 추가 한정자(예: "created:2024-01-01T00:00:00Z..2024-01-02T00:00:00Z stars:>=5")를 붙여 검색합니다.
+     */
+    public GitHubSearchResult searchRepositories(String topic, String qualifiers, int page) {
+        String query = qualifiers.isEmpty() ? topic : topic + " " + qualifiers;
+        System.out.println(">>> GitHub API: 인기 저장소 검색 시작... (검색어: \"" + query + "\", 페이지: " + page + ")");
 
         String apiUrl = String.format(
-                "/search/repositories?q=%s&sort=stars&order=desc&per_page=5&page=%d",
-                topic, page
+                "/search/repositories?q=%s&sort=stars&order=desc&per_page=%d&page=%d",
+                query, SEARCH_PER_PAGE, page
         );
 
-        // 3. '다음 페이지' 미리 계산해서 메모장에 저장 (최대 10페이지까지만 보고 다시 1로 리셋)
-        int nextPage = page + 1;
-        if (nextPage > 10) nextPage = 1;
-        topicPageMap.put(topic, nextPage);
-
         try {
-            String jsonResponse = gitHubWebClient.get().uri(apiUrl)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve().bodyToMono(String.class).block();
-
-            if (jsonResponse != null) {
-                JsonNode root = objectMapper.readTree(jsonResponse);
-                JsonNode items = root.path("items");
-                if (items.isArray() && items.size() > 0) {
-                    System.out.println(">>> GitHub API: 저장소 " + items.size() + "개 검색 완료.");
-                    List<JsonNode> repositories = new ArrayList<>();
-                    items.forEach(repositories::add);
-
-                    return new GitHubSearchResult(topic, repositories);
-                } else {
-                    System.out.println(">>> GitHub API: 검색된 저장소 없음.");
+            // 응답 전체를 모으지 않고 도착하는 버퍼를 바로 파서에 흘려보냄 (읽은 버퍼는 즉시 반환)
+            // 응답이 timeout 동안 멈추면 TimeoutException으로 실패
+            GitHubSearchResult result = githubGuard.call(timeout -> {
+                try (InputStream in = DataBufferUtils.subscriberInputStream(gitHubWebClient.get().uri(apiUrl)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .retrieve().bodyToFlux(DataBuffer.class).timeout(timeout), SEARCH_PREFETCH_BUFFERS)) {
+                    return parseSearchResult(topic, in);
+                } catch (IOException e) {
+                    throw unwrapStreamError(e);
                 }
+            });
+
+            if (!result.repositories().isEmpty()) {
+                System.out.println(">>> GitHub API: 저장소 " + result.repositories().size() + "개 검색 완료. (전체 " + result.totalCount() + "개)");
+            } else {
+                System.out.println(">>> GitHub API: 검색된 저장소 없음.");
             }
+            return result;
+        } catch (BackendCallException e) {
+            System.err.println(">>> GitHub API 검색 실패 (" + e.getReason() + "): " + e.getMessage());
         } catch (Exception e) {
             System.err.println(">>> GitHub API 검색 중 오류 발생: " + e.getMessage());
         }
 
-        return new GitHubSearchResult(topic, Collections.emptyList());
+        return new GitHubSearchResult(topic, Collections.emptyList(), -1);
     }
 
     /**
-     * GitHub API로 README 콘텐츠를 가져옵니다.
+     * GitHub API로 README 원문을 가져옵니다.
+     * raw 미디어 타입으로 본문 바이트를 직접 받고, 분석 예산(README_BYTE_BUDGET)까지만 읽은 뒤 연결을 끊습니다.
+     * @return README 본문, README가 없으면(404) 빈 문자열, 요청이 실패하면 null
      */
     public String getReadmeContent(String owner, String repoName) {
         System.out.println(">>> GitHub API: README 요청 - " + owner + "/" + repoName);
         String apiUrl = String.format("/repos/%s/%s/readme", owner, repoName);
         try {
-            String jsonResponse = gitHubWebClient.get().uri(apiUrl)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve().bodyToMono(String.class).block();
-
-            if (jsonResponse != null) {
-                JsonNode root = objectMapper.readTree(jsonResponse);
-                String contentBase64 = root.path("content").asText(null);
-                if (contentBase64 != null) {
-                    return decodeBase64(contentBase64);
-                }
-            }
+            byte[] content = githubGuard.call(timeout -> DataBufferUtils.join(DataBufferUtils.takeUntilByteCount(
+                            gitHubWebClient.get().uri(apiUrl)
+                                    .accept(GITHUB_RAW)
+                                    .retrieve().bodyToFlux(DataBuffer.class), README_BYTE_BUDGET))
+                    .map(this::toBytes)
+                    .timeout(timeout).block());
+
+            // 본문이 비어 있으면 README가 없는 것과 같게 취급
+            return content != null ? new String(content, StandardCharsets.UTF_8) : "";
+        } catch (BackendCallException e) {
+            if (e.getCause() instanceof WebClientResponseException.NotFound) return "";
+            System.err.println(">>> README 요청 실패 (" + e.getReason() + "): " + e.getMessage());
         } catch (Exception e) {
             System.err.println(">>> README 요청 중 오류: " + e.getMessage());
         }
@@ -116,16 +146,80 @@ public class GitHubService {
     }
 
     /**
-     * Base64 디코딩 헬퍼
+     * 검색 응답을 트리로 만들지 않고 토큰 단위로 읽어 total_count와 items의 필요한 필드만 뽑습니다.
      */
-    private String decodeBase64(String base64Content) {
+    private GitHubSearchResult parseSearchResult(String topic, InputStream in) throws IOException {
+        List<GitHubRepoSummary> repositories = new ArrayList<>();
+        long totalCount = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return new GitHubSearchResult(topic, repositories, -1);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("total_count".equals(field)) {
+                    totalCount = parser.getValueAsLong();
+                } else if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        GitHubRepoSummary repo = parseRepoItem(parser);
+                        if (repo.owner() != null && repo.name() != null) repositories.add(repo);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new GitHubSearchResult(topic, repositories, totalCount);
+    }
+
+    /**
+     * 스트림이 전달한 응답 오류(4xx/5xx, 타임아웃)는 원래 예외로 되돌려 BackendGuard가 사유를 구분하게 합니다.
+     */
+    private RuntimeException unwrapStreamError(IOException e) {
+        for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+            if (t instanceof RuntimeException runtime) return runtime;
+        }
+        return new UncheckedIOException(e);
+    }
+
+    private GitHubRepoSummary parseRepoItem(JsonParser parser) throws IOException {
+        String owner = null, name = null, htmlUrl = null, description = null, language = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = parser.getValueAsString();
+                case "html_url" -> htmlUrl = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "language" -> language = parser.getValueAsString();
+                case "owner" -> owner = parseOwnerLogin(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new GitHubRepoSummary(owner, name, htmlUrl, description, language);
+    }
+
+    private String parseOwnerLogin(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) return null;
+        String login = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("login".equals(field)) {
+                login = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return login;
+    }
+
+    private byte[] toBytes(DataBuffer buffer) {
         try {
-            String cleanBase64 = base64Content.replaceAll("\\s", "");
-            byte[] decodedBytes = Base64.getDecoder().decode(cleanBase64);
-            return new String(decodedBytes, StandardCharsets.UTF_8);
-        } catch (IllegalArgumentException e) {
-            System.err.println("Base64 디코딩 실패: " + e.getMessage());
-            return null;
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.myproject.analyzerbackend.service;
+
+// 작업 우선순위 + 취소용 태그 (예: 저장소 이름, "profile:12")
+public record GpuWork(WorkPriority priority, String tag) {
+
+    public static GpuWork interactive(String tag) {
+        return new GpuWork(WorkPriority.INTERACTIVE, tag);
+    }
+
+    public static GpuWork regenerate(Long profileId) {
+        return new GpuWork(WorkPriority.REGENERATE, regenerateTag(profileId));
+    }
+
+    public static GpuWork background(String tag) {
+        return new GpuWork(WorkPriority.BACKGROUND, tag);
+    }
+
+    public static String regenerateTag(Long profileId) {
+        return "profile:" + profileId;
+    }
+}
@@ -0,0 +1,74 @@
+package com.myproject.analyzerbackend.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Ollama / ComfyUI 호출 앞단의 중앙 작업 스케줄러입니다.
+ * 즉시 분석 > 이미지 재생성 > 백그라운드 크롤링 순으로 슬롯을 배정하고,
+ * 재생성 + 백그라운드 작업은 합쳐서 전체 슬롯 - 1개까지만 실행하여 사용자 요청이 크롤링 부하 뒤에 밀리지 않도록 합니다.
+ * 전체 슬롯 수는 백엔드별 BackendGuard의 현재 동시 실행 한도를 따르므로, 지연이 늘어 한도가 줄면
+ * 낮은 우선순위 작업부터 스케줄러 대기열에 머무릅니다. (gpu-scheduler.*.slots는 한도의 시작 값)
+ */
+@Service
+public class GpuWorkScheduler {
+
+    private final WorkScheduler ollamaScheduler;
+    private final WorkScheduler comfyUiScheduler;
+
+    public GpuWorkScheduler(@Qualifier("ollamaGenerateGuard") BackendGuard ollamaGenerateGuard,
+                            @Qualifier("ollamaEmbeddingGuard") BackendGuard ollamaEmbeddingGuard,
+                            @Qualifier("comfyuiGuard") BackendGuard comfyuiGuard,
+                            @Value("${gpu-scheduler.ollama.slots:2}") int ollamaSlots,
+                            @Value("${gpu-scheduler.ollama.regenerate-cap:1}") int ollamaRegenerateCap,
+                            @Value("${gpu-scheduler.ollama.background-cap:1}") int ollamaBackgroundCap,
+                            @Value("${gpu-scheduler.comfyui.slots:2}") int comfyUiSlots,
+                            @Value("${gpu-scheduler.comfyui.regenerate-cap:1}") int comfyUiRegenerateCap,
+                            @Value("${gpu-scheduler.comfyui.background-cap:1}") int comfyUiBackgroundCap,
+                            @Value("${gpu-scheduler.aging-ms:30000}") long agingMillis) {
+        // 생성과 임베딩은 같은 GPU를 나눠 쓰므로 두 한도 중 작은 쪽을 슬롯 수로 사용
+        this.ollamaScheduler = new WorkScheduler("Ollama",
+                () -> Math.min(ollamaGenerateGuard.currentLimit(), ollamaEmbeddingGuard.currentLimit()), Map.of(
+                WorkPriority.REGENERATE, ollamaRegenerateCap,
+                WorkPriority.BACKGROUND, ollamaBackgroundCap), agingMillis);
+        this.comfyUiScheduler = new WorkScheduler("ComfyUI", comfyuiGuard::currentLimit, Map.of(
+                WorkPriority.REGENERATE, comfyUiRegenerateCap,
+                WorkPriority.BACKGROUND, comfyUiBackgroundCap), agingMillis);
+        warnIfNoInteractiveReserve("ollama", ollamaSlots);
+        warnIfNoInteractiveReserve("comfyui", comfyUiSlots);
+    }
+
+    public <T> T runOllama(GpuWork work, Callable<T> task) throws Exception {
+        return ollamaScheduler.execute(work, task);
+    }
+
+    public <T> T runComfyUi(GpuWork work, Callable<T> task) throws Exception {
+        return comfyUiScheduler.execute(work, task);
+    }
+
+    /**
+     * 태그가 같은 대기 작업을 두 백엔드 모두에서 취소합니다.
+     */
+    public int cancel(String tag) {
+        return ollamaScheduler.cancel(tag) + comfyUiScheduler.cancel(tag);
+    }
+
+    public List<Map<String, Object>> stats() {
+        return List.of(ollamaScheduler.stats(), comfyUiScheduler.stats());
+    }
+
+    /**
+     * 슬롯이 1개면 즉시 분석용 슬롯을 따로 남길 수 없어 실행 중인 크롤링 작업이 끝날 때까지 기다립니다.
+     */
+    private void warnIfNoInteractiveReserve(String backend, int slots) {
+        if (slots < 2) {
+            System.err.println(">>> [GPU 스케줄러] gpu-scheduler." + backend + ".slots가 " + slots
+                    + "라 즉시 분석용 슬롯이 예약되지 않습니다. (2 이상 권장)");
+        }
+    }
+}
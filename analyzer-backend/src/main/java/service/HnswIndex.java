@@ -0,0 +1,304 @@
+package com.myproject.analyzerbackend.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * VectorStore 슬롯 위에 만든 HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 인덱스입니다.
+ * - 층마다 최대 M개(0층은 2M개)의 이웃을 유지하고, 위층에서 탐욕 탐색 후 0층에서 ef개 후보를 넓게 탐색합니다.
+ * - 삭제는 묘비(tombstone)로 표시하여 결과에서 제외하고, 그래프 연결은 그대로 둡니다.
+ *   묘비 비율이 커지면 호출자가 liveVectors()로 살아 있는 벡터를 복사한 뒤 rebuild()로 새 인덱스를 만듭니다.
+ * 스레드 안전하지 않으므로 호출자(SemanticSearchService)가 읽기/쓰기 잠금을 관리합니다.
+ */
+class HnswIndex {
+
+    private record Candidate(int slot, float similarity) {}
+
+    private final VectorStore store;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+
+    // links.get(slot)[level] = {이웃 수, 이웃1, 이웃2, ...}
+    private final List<int[][]> links = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(VectorStore store, int m, int efConstruction) {
+        this.store = store;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    VectorStore store() {
+        return store;
+    }
+
+    int liveCount() {
+        return links.size() - deleted.cardinality();
+    }
+
+    /**
+     * 전체 노드 중 묘비 비율 (노드가 없으면 0)
+     */
+    double deletedRatio() {
+        return links.isEmpty() ? 0 : (double) deleted.cardinality() / links.size();
+    }
+
+    /**
+     * 살아 있는 벡터만 새 VectorStore에 복사합니다. (그래프는 만들지 않으므로 빠름)
+     */
+    VectorStore liveVectors() {
+        VectorStore live = new VectorStore(store.dimension());
+        for (int slot = 0; slot < links.size(); slot++) {
+            if (!deleted.get(slot)) live.add(store.idAt(slot), store.get(slot));
+        }
+        return live;
+    }
+
+    /**
+     * 주어진 VectorStore의 모든 슬롯으로 같은 설정(M, efConstruction)의 새 그래프를 만듭니다.
+     * 이 인덱스의 상태는 읽지 않으므로 잠금 없이 호출해도 됩니다.
+     */
+    HnswIndex rebuild(VectorStore vectors) {
+        HnswIndex rebuilt = new HnswIndex(vectors, m, efConstruction);
+        for (int slot = 0; slot < vectors.size(); slot++) rebuilt.insert(slot);
+        return rebuilt;
+    }
+
+    /**
+     * 살아 있는 벡터만으로 그래프를 다시 만듭니다. (이 인덱스는 바뀌지 않음)
+     */
+    HnswIndex compact() {
+        return rebuild(liveVectors());
+    }
+
+    /**
+     * 이미 VectorStore에 추가된 슬롯을 그래프에 연결합니다. (슬롯은 0부터 순서대로 들어와야 함)
+     */
+    void insert(int slot) {
+        int level = (int) Math.floor(-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) nodeLinks[l] = new int[(l == 0 ? maxM0 : m) + 1];
+        links.add(nodeLinks);
+
+        if (entryPoint < 0) {
+            entryPoint = slot;
+            maxLevel = level;
+            return;
+        }
+
+        float[] query = store.get(slot);
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> candidates = searchLayer(query, current, efConstruction, l);
+            int maxNeighbors = l == 0 ? maxM0 : m;
+            List<Candidate> neighbors = selectNeighbors(candidates, m);
+            for (Candidate neighbor : neighbors) {
+                addLink(slot, neighbor.slot(), l, maxNeighbors);
+                addLink(neighbor.slot(), slot, l, maxNeighbors);
+            }
+            current = candidates.get(0).slot();
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = slot;
+        }
+    }
+
+    void markDeleted(int slot) {
+        deleted.set(slot);
+    }
+
+    boolean isDeleted(int slot) {
+        return deleted.get(slot);
+    }
+
+    /**
+     * 정규화된 질의 벡터와 가장 가까운 살아 있는 슬롯 k개 (유사도 내림차순)
+     * 묘비/제외 슬롯을 빼고 k개가 안 되면 ef를 두 배씩 넓혀 다시 탐색합니다.
+     */
+    List<Integer> search(float[] query, int k, int ef, int excludeSlot) {
+        if (entryPoint < 0) return List.of();
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        int width = Math.max(ef, k);
+        while (true) {
+            List<Candidate> candidates = searchLayer(query, current, width, 0);
+            List<Integer> result = new ArrayList<>(k);
+            for (Candidate candidate : candidates) {
+                if (candidate.slot() == excludeSlot || deleted.get(candidate.slot())) continue;
+                result.add(candidate.slot());
+                if (result.size() == k) break;
+            }
+            // 후보가 ef보다 적으면 도달 가능한 노드를 모두 본 것
+            if (result.size() == k || candidates.size() < width || width >= links.size()) return result;
+            width = Math.min(width * 2, links.size());
+        }
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(m);
+        out.writeInt(efConstruction);
+        out.writeInt(links.size());
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int[][] nodeLinks : links) {
+            out.writeByte(nodeLinks.length);
+            for (int[] levelLinks : nodeLinks) {
+                out.writeByte(levelLinks[0]);
+                for (int i = 1; i <= levelLinks[0]; i++) out.writeInt(levelLinks[i]);
+            }
+        }
+        long[] deletedWords = deleted.toLongArray();
+        out.writeInt(deletedWords.length);
+        for (long word : deletedWords) out.writeLong(word);
+    }
+
+    static HnswIndex readFrom(VectorStore store, DataInputStream in) throws IOException {
+        int m = in.readInt();
+        int efConstruction = in.readInt();
+        HnswIndex index = new HnswIndex(store, m, efConstruction);
+        int nodeCount = in.readInt();
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        for (int n = 0; n < nodeCount; n++) {
+            int levels = in.readUnsignedByte();
+            int[][] nodeLinks = new int[levels][];
+            for (int l = 0; l < levels; l++) {
+                int[] levelLinks = new int[(l == 0 ? index.maxM0 : m) + 1];
+                levelLinks[0] = in.readUnsignedByte();
+                for (int i = 1; i <= levelLinks[0]; i++) levelLinks[i] = in.readInt();
+                nodeLinks[l] = levelLinks;
+            }
+            index.links.add(nodeLinks);
+        }
+        long[] deletedWords = new long[in.readInt()];
+        for (int i = 0; i < deletedWords.length; i++) deletedWords[i] = in.readLong();
+        index.deleted.or(BitSet.valueOf(deletedWords));
+        return index;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = store.similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] levelLinks = links.get(current)[level];
+            for (int i = 1; i <= levelLinks[0]; i++) {
+                float similarity = store.similarity(query, levelLinks[i]);
+                if (similarity > best) {
+                    best = similarity;
+                    current = levelLinks[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 층에서 ef개 후보를 넓게 탐색합니다. 결과는 유사도 내림차순입니다.
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(links.size());
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Comparator.comparingDouble(Candidate::similarity).reversed());
+        PriorityQueue<Candidate> found = new PriorityQueue<>(Comparator.comparingDouble(Candidate::similarity));
+
+        Candidate first = new Candidate(start, store.similarity(query, start));
+        visited.set(start);
+        toVisit.add(first);
+        found.add(first);
+
+        while (!toVisit.isEmpty()) {
+            Candidate current = toVisit.poll();
+            if (found.size() >= ef && current.similarity() < found.peek().similarity()) break;
+
+            int[][] nodeLinks = links.get(current.slot());
+            if (level >= nodeLinks.length) continue;
+            int[] levelLinks = nodeLinks[level];
+            for (int i = 1; i <= levelLinks[0]; i++) {
+                int neighbor = levelLinks[i];
+                if (visited.get(neighbor)) continue;
+                visited.set(neighbor);
+                float similarity = store.similarity(query, neighbor);
+                if (found.size() < ef || similarity > found.peek().similarity()) {
+                    Candidate candidate = new Candidate(neighbor, similarity);
+                    toVisit.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) found.poll();
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(found);
+        result.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+        return result;
+    }
+
+    /**
+     * 이웃 선택 휴리스틱: 이미 고른 이웃보다 질의에 더 가까운 후보만 골라 방향을 분산시킵니다.
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> candidates, int count) {
+        List<Candidate> selected = new ArrayList<>(count);
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= count) break;
+            boolean keep = true;
+            for (Candidate chosen : selected) {
+                if (store.similarity(candidate.slot(), chosen.slot()) > candidate.similarity()) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) selected.add(candidate);
+        }
+        // 휴리스틱으로 너무 적게 골라졌으면 가까운 순으로 채움
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= count) break;
+            if (!selected.contains(candidate)) selected.add(candidate);
+        }
+        return selected;
+    }
+
+    private void addLink(int from, int to, int level, int maxNeighbors) {
+        int[] levelLinks = links.get(from)[level];
+        int count = levelLinks[0];
+        for (int i = 1; i <= count; i++) {
+            if (levelLinks[i] == to) return;
+        }
+        if (count < maxNeighbors) {
+            levelLinks[count + 1] = to;
+            levelLinks[0] = count + 1;
+            return;
+        }
+        // 가득 찼으면 from과 가장 먼 이웃을 교체
+        int worstIndex = -1;
+        float worst = store.similarity(from, to);
+        for (int i = 1; i <= count; i++) {
+            float similarity = store.similarity(from, levelLinks[i]);
+            if (similarity < worst) {
+                worst = similarity;
+                worstIndex = i;
+            }
+        }
+        if (worstIndex > 0) levelLinks[worstIndex] = to;
+    }
+}
@@ -4,12 +4,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
-import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.regex.Pattern;
 
 record ProjectAnalysisResult(String projectTitle, String projectSummary, String imageConcept) {}
@@ -19,17 +20,29 @@ public class OllamaService {
 
     private final WebClient ollamaWebClient;
     private final ObjectMapper objectMapper;
+    private final GpuWorkScheduler gpuWorkScheduler;
+    private final BackendGuard generateGuard;
+    private final BackendGuard embeddingGuard;
     private final String model = "llama3";
+    private final String embeddingModel;
 
-    private static final int MAX_README_LENGTH = 8192;
+    static final int MAX_README_LENGTH = 8192; // GitHubService README 읽기 예산의 기준
     private static final Pattern CJK_PATTERN = Pattern.compile("[\\u4E00-\\u9FFF\\u3040-\\u30FF\\uFF00-\\uFFEF]");
 
-    public OllamaService(@Qualifier("ollamaWebClient") WebClient ollamaWebClient, ObjectMapper objectMapper) {
+    public OllamaService(@Qualifier("ollamaWebClient") WebClient ollamaWebClient, ObjectMapper objectMapper,
+                         GpuWorkScheduler gpuWorkScheduler,
+                         @Qualifier("ollamaGenerateGuard") BackendGuard generateGuard,
+                         @Qualifier("ollamaEmbeddingGuard") BackendGuard embeddingGuard,
+                         @Value("${semantic.embedding-model:nomic-embed-text}") String embeddingModel) {
         this.ollamaWebClient = ollamaWebClient;
         this.objectMapper = objectMapper;
+        this.gpuWorkScheduler = gpuWorkScheduler;
+        this.generateGuard = generateGuard;
+        this.embeddingGuard = embeddingGuard;
+        this.embeddingModel = embeddingModel;
     }
 
-    public ProjectAnalysisResult analyzeReadme(String readmeContent) {
+    public ProjectAnalysisResult analyzeReadme(String readmeContent, GpuWork work) {
         if (readmeContent == null || readmeContent.isBlank()) {
             return null;
         }
@@ -41,9 +54,9 @@ public class OllamaService {
             contentToAnalyze = readmeContent.substring(0, MAX_README_LENGTH) + "...";
         }
 
-        String projectTitle = extractProjectTitle(contentToAnalyze);
-        String projectSummary = extractProjectSummary(contentToAnalyze);
-        String imageConcept = extractImageConcept(contentToAnalyze);
+        String projectTitle = extractProjectTitle(contentToAnalyze, work);
+        String projectSummary = extractProjectSummary(contentToAnalyze, work);
+        String imageConcept = extractImageConcept(contentToAnalyze, work);
 
         if (projectTitle == null && projectSummary == null && imageConcept == null) {
             return null;
@@ -52,13 +65,13 @@ public class OllamaService {
         return new ProjectAnalysisResult(projectTitle, projectSummary, imageConcept);
     }
 
-    private String extractProjectTitle(String content) {
+    private String extractProjectTitle(String content, GpuWork work) {
         System.out.println("  >>> 프로젝트 제목 추출 중...");
         String prompt = "Extract the official H1(#) title from this GitHub README text. Respond with ONLY the title text. No markdown, no explanations.\n\n" + content;
-        return callOllamaApi(prompt);
+        return callOllamaApi(prompt, work);
     }
 
-    private String extractProjectSummary(String content) {
+    private String extractProjectSummary(String content, GpuWork work) {
         System.out.println("  >>> 프로젝트 요약 추출 중...");
 
         // 프롬프트 강화: 한글 응답 및 잡담 제거
@@ -71,7 +84,7 @@ public class OllamaService {
                 + "--- README ---\n"
                 + content;
 
-        String response = callOllamaApi(prompt);
+        String response = callOllamaApi(prompt, work);
 
         if (response != null) {
             return CJK_PATTERN.matcher(response.replaceAll("\"", "")).replaceAll("");
@@ -79,7 +92,7 @@ public class OllamaService {
         return null;
     }
 
-    private String extractImageConcept(String content) {
+    private String extractImageConcept(String content, GpuWork work) {
         System.out.println("  >>> 이미지 장면(Scene) 묘사 추출 중...");
 
         // AI에게 구체적인 장면 묘사 요청
@@ -93,7 +106,7 @@ public class OllamaService {
                 + "--- README Start ---\n"
                 + content;
 
-        String response = callOllamaApi(prompt);
+        String response = callOllamaApi(prompt, work);
 
         if (response == null || response.isBlank()) {
             System.err.println("    - 이미지 컨셉 추출 실패 (기본값 사용)");
@@ -104,18 +117,55 @@ public class OllamaService {
         return response.trim().replaceAll("\"", "");
     }
 
-    public String translateToEnglish(String koreanText) {
+    public String translateToEnglish(String koreanText, GpuWork work) {
         String prompt = "Translate this Korean text to simple English. Only the translation.\n\n" + koreanText;
-        return callOllamaApi(prompt);
+        return callOllamaApi(prompt, work);
     }
 
-    private String callOllamaApi(String prompt) {
+    /**
+     * Ollama 호출은 GpuWorkScheduler 슬롯을 얻은 뒤 BackendGuard를 거쳐 실행합니다.
+     * - 대기 중 취소되면 CancellationException
+     * - 서킷 차단/한도 초과(부하 차단)는 BackendCallException으로 즉시 전달 (남은 프롬프트도 호출하지 않도록)
+     * - 타임아웃/일반 오류는 사유를 남기고 null
+     */
+    private String callOllamaApi(String prompt, GpuWork work) {
         Map<String, Object> requestBody = Map.of("model", model, "prompt", prompt, "stream", false);
         try {
-            String jsonResponse = ollamaWebClient.post().uri("/generate")
-                    .contentType(MediaType.APPLICATION_JSON).bodyValue(requestBody).retrieve()
-                    .bodyToMono(String.class).timeout(Duration.ofMinutes(3)).block();
+            String jsonResponse = gpuWorkScheduler.runOllama(work, () -> generateGuard.call(timeout ->
+                    ollamaWebClient.post().uri("/generate")
+                            .contentType(MediaType.APPLICATION_JSON).bodyValue(requestBody).retrieve()
+                            .bodyToMono(String.class).timeout(timeout).block()));
             return extractResponseText(jsonResponse);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (BackendCallException e) {
+            System.err.println("    - Ollama 호출 실패 (" + e.getReason() + "): " + e.getMessage());
+            if (e.isShed()) throw e;
+            return null;
+        } catch (Exception e) { return null; }
+    }
+
+    /**
+     * Ollama /api/embeddings로 텍스트 임베딩을 계산합니다. (실패 시 null)
+     */
+    public float[] embed(String text, GpuWork work) {
+        Map<String, Object> requestBody = Map.of("model", embeddingModel, "prompt", text);
+        try {
+            JsonNode response = gpuWorkScheduler.runOllama(work, () -> embeddingGuard.call(timeout ->
+                    ollamaWebClient.post().uri("/embeddings")
+                            .contentType(MediaType.APPLICATION_JSON).bodyValue(requestBody).retrieve()
+                            .bodyToMono(JsonNode.class).timeout(timeout).block()));
+            JsonNode embedding = response != null ? response.path("embedding") : null;
+            if (embedding == null || !embedding.isArray() || embedding.isEmpty()) return null;
+
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) vector[i] = (float) embedding.get(i).asDouble();
+            return vector;
+        } catch (CancellationException e) {
+            throw e;
+        } catch (BackendCallException e) {
+            System.err.println("    - Ollama 임베딩 실패 (" + e.getReason() + "): " + e.getMessage());
+            return null;
         } catch (Exception e) { return null; }
     }
 
@@ -0,0 +1,221 @@
+package com.myproject.analyzerbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.myproject.analyzerbackend.domain.RepositoryProfile;
+import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 캐시 키: 전체 목록(topic/ids 없음) / 토픽 필터 / 즐겨찾기 ID 목록 + 페이지 + 정렬
+record ProfileQueryKey(String topic, List<Long> ids, int page, int size, String sort) {}
+
+// 캐시 값: 엔티티 대신 ID와 전체 개수만 보관 (엔티티는 2차 캐시에서 읽음)
+record CachedPage(List<Long> ids, long total) {}
+
+/**
+ * 갤러리 조회 결과 캐시입니다.
+ * - findAll / findByTopic / findByIdIn의 앞쪽 max-page 페이지 결과(ID 목록 + 전체 개수)를 Caffeine(W-TinyLFU)에 보관합니다.
+ * - 엔티티 본문은 Hibernate 2차 캐시(RepositoryProfile 영역)에서 ID로 읽으므로, 이미지 재생성 같은 수정은 따로 무효화할 필요가 없습니다.
+ * - 저장/삭제 시 영향받는 키만 지웁니다: 전체 목록, 해당 토픽, 해당 ID를 포함한 즐겨찾기. 청소(벌크 삭제)는 전체를 지웁니다.
+ * 읽기 레플리카 지연으로 무효화 직후 오래된 결과가 다시 채워질 수 있으므로 ttl-seconds로 상한을 둡니다.
+ */
+@Service
+public class ProfileQueryCache {
+
+    private static final String ENTITY_REGION = RepositoryProfile.class.getName();
+
+    private final RepositoryProfileRepository repositoryProfileRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int maxPage;
+
+    private final Cache<ProfileQueryKey, CachedPage> pages;
+    // 조회 도중 무효화가 끼어들면 그 결과는 캐시에 넣지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProfileQueryCache(RepositoryProfileRepository repositoryProfileRepository,
+                             EntityManager entityManager,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${profile-cache.query.max-entries:2000}") long maxEntries,
+                             @Value("${profile-cache.query.max-page:3}") int maxPage,
+                             @Value("${profile-cache.query.ttl-seconds:300}") long ttlSeconds) {
+        this.repositoryProfileRepository = repositoryProfileRepository;
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxPage = maxPage;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RepositoryProfile> findAll(Pageable pageable) {
+        return cached(new ProfileQueryKey(null, null, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString()),
+                pageable, () -> repositoryProfileRepository.findAll(pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RepositoryProfile> findByTopic(String topic, Pageable pageable) {
+        return cached(new ProfileQueryKey(topic, null, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString()),
+                pageable, () -> repositoryProfileRepository.findByTopic(topic, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RepositoryProfile> findByIdIn(List<Long> ids, Pageable pageable) {
+        List<Long> sortedIds = ids.stream().distinct().sorted().toList();
+        return cached(new ProfileQueryKey(null, sortedIds, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString()),
+                pageable, () -> repositoryProfileRepository.findByIdIn(ids, pageable));
+    }
+
+    /**
+     * 저장된 프로필이 보일 수 있는 키를 지웁니다. (트랜잭션 커밋 이후)
+     */
+    public void recordSaved(List<RepositoryProfile> profiles) {
+        Set<String> topics = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        for (RepositoryProfile profile : profiles) {
+            if (profile.getTopic() != null) topics.add(profile.getTopic());
+            if (profile.getId() != null) ids.add(profile.getId());
+        }
+        afterCommit(() -> invalidate(topics, ids));
+    }
+
+    /**
+     * 삭제된 프로필이 들어 있던 키를 지웁니다. (트랜잭션 커밋 이후)
+     */
+    public void recordDeleted(RepositoryProfile profile) {
+        Set<String> topics = profile.getTopic() != null ? Set.of(profile.getTopic()) : Set.of();
+        afterCommit(() -> invalidate(topics, Set.of(profile.getId())));
+    }
+
+    /**
+     * 벌크 삭제(청소) 이후 전체를 지웁니다. (엔티티 영역은 Hibernate가 벌크 DELETE 시 비움)
+     */
+    public void recordBulkDeleted() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            pages.invalidateAll();
+        });
+    }
+
+    /**
+     * 다른 노드가 프로필을 바꾼 뒤 조회 결과와 엔티티 2차 캐시를 모두 지웁니다. (트랜잭션 커밋 이후)
+     */
+    public void recordForeignChange() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            pages.invalidateAll();
+            entityManagerFactory.getCache().evict(RepositoryProfile.class);
+        });
+    }
+
+    /**
+     * 조회 결과 캐시 / 엔티티 2차 캐시 적중률
+     */
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+
+        CacheStats queryStats = pages.stats();
+        Map<String, Object> query = new LinkedHashMap<>();
+        query.put("name", "gallery-query");
+        query.put("size", pages.estimatedSize());
+        query.put("hits", queryStats.hitCount());
+        query.put("misses", queryStats.missCount());
+        query.put("hitRatio", queryStats.hitRate());
+        query.put("evictions", queryStats.evictionCount());
+        stats.add(query);
+
+        CacheRegionStatistics regionStats = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getDomainDataRegionStatistics(ENTITY_REGION);
+        Map<String, Object> entity = new LinkedHashMap<>();
+        entity.put("name", "entity:" + RepositoryProfile.class.getSimpleName());
+        if (regionStats != null) {
+            long hits = regionStats.getHitCount();
+            long misses = regionStats.getMissCount();
+            entity.put("size", regionStats.getElementCountInMemory());
+            entity.put("hits", hits);
+            entity.put("misses", misses);
+            entity.put("hitRatio", hits + misses == 0 ? 1.0 : (double) hits / (hits + misses));
+            entity.put("puts", regionStats.getPutCount());
+        }
+        stats.add(entity);
+        return stats;
+    }
+
+    private Page<RepositoryProfile> cached(ProfileQueryKey key, Pageable pageable, Supplier<Page<RepositoryProfile>> loader) {
+        if (key.page() >= maxPage) return loader.get();
+
+        CachedPage cachedPage = pages.getIfPresent(key);
+        if (cachedPage != null) {
+            List<RepositoryProfile> content = loadEntities(cachedPage.ids());
+            if (content != null) return new PageImpl<>(content, pageable, cachedPage.total());
+            // 그사이 삭제된 항목이 있으면 다시 조회
+            pages.invalidate(key);
+        }
+
+        long generationBefore = generation.get();
+        Page<RepositoryProfile> page = loader.get();
+        if (generation.get() == generationBefore) {
+            pages.put(key, new CachedPage(page.getContent().stream().map(RepositoryProfile::getId).toList(), page.getTotalElements()));
+        }
+        return page;
+    }
+
+    /**
+     * ID 순서대로 엔티티를 2차 캐시(없으면 DB)에서 읽습니다. 하나라도 없으면 null
+     */
+    private List<RepositoryProfile> loadEntities(List<Long> ids) {
+        List<RepositoryProfile> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RepositoryProfile profile = entityManager.find(RepositoryProfile.class, id);
+            if (profile == null) return null;
+            content.add(profile);
+        }
+        return content;
+    }
+
+    private void invalidate(Set<String> topics, Set<Long> ids) {
+        generation.incrementAndGet();
+        pages.asMap().keySet().removeIf(key ->
+                (key.topic() == null && key.ids() == null)
+                        || (key.topic() != null && topics.contains(key.topic()))
+                        || (key.ids() != null && key.ids().stream().anyMatch(ids::contains)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
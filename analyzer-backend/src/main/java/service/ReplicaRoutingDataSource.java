@@ -0,0 +1,119 @@
+package com.myproject.analyzerbackend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 레플리카로, 나머지는 primary로 보냅니다.
+ * - 레플리카는 라운드 로빈으로 고르고, 복제 지연이 maxLagSeconds를 넘거나 응답하지 않는 레플리카는 제외합니다.
+ * - 쓸 수 있는 레플리카가 없으면 primary로 읽습니다.
+ * 트랜잭션의 readOnly 플래그가 정해진 뒤에 커넥션을 얻어야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용합니다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0
+                        WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final double maxLagSeconds;
+
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private volatile List<String> healthyReplicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(HikariDataSource primary, Map<String, HikariDataSource> replicas, double maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        // 첫 지연 확인 전까지는 모든 레플리카를 사용 (기동 직후 primary 과부하 방지)
+        this.healthyReplicas = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return PRIMARY;
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) return PRIMARY;
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * 레플리카별 복제 지연을 확인하여 읽기 대상 목록을 갱신합니다.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:5000}")
+    public void checkReplicaLag() {
+        if (replicas.isEmpty()) return;
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, HikariDataSource> replica : replicas.entrySet()) {
+            double lag;
+            try {
+                Double measured = new JdbcTemplate(replica.getValue()).queryForObject(LAG_QUERY, Double.class);
+                lag = measured != null ? measured : 0;
+            } catch (Exception e) {
+                lag = Double.POSITIVE_INFINITY;
+            }
+            Double previous = lagSeconds.put(replica.getKey(), lag);
+            boolean ok = lag <= maxLagSeconds;
+            if (ok) healthy.add(replica.getKey());
+            boolean wasOk = previous == null || previous <= maxLagSeconds;
+            if (ok != wasOk) {
+                System.out.println(">>> [DB 라우팅] " + replica.getKey() + (ok ? " 읽기 재개" : " 읽기 제외")
+                        + " (지연 " + (Double.isInfinite(lag) ? "응답 없음" : String.format("%.1f초", lag)) + ")");
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    /**
+     * 풀별 상태 (활성 / 유휴 / 대기 스레드 / 복제 지연 / 읽기 사용 여부)
+     */
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        stats.add(poolStats(PRIMARY, primary, null, true));
+        List<String> healthy = healthyReplicas;
+        replicas.forEach((name, pool) -> stats.add(poolStats(name, pool, lagSeconds.get(name), healthy.contains(name))));
+        return stats;
+    }
+
+    private Map<String, Object> poolStats(String name, HikariDataSource pool, Double lag, boolean serving) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("maxPoolSize", pool.getMaximumPoolSize());
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean != null) {
+            stats.put("active", mxBean.getActiveConnections());
+            stats.put("idle", mxBean.getIdleConnections());
+            stats.put("waiting", mxBean.getThreadsAwaitingConnection());
+        }
+        if (lag != null) stats.put("lagSeconds", Double.isInfinite(lag) ? -1 : lag);
+        stats.put("serving", serving);
+        return stats;
+    }
+
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,359 @@
+package com.myproject.analyzerbackend.service;
+
+import com.myproject.analyzerbackend.domain.RepositoryProfile;
+import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 프로필 제목 + 요약의 임베딩으로 의미 검색과 "관련 프로젝트"를 제공합니다.
+ * - 저장된 프로필은 커밋 후 전용 스레드에서 Ollama 임베딩을 계산해 HNSW 인덱스에 추가합니다.
+ * - 인덱스(벡터 + 그래프)는 주기적으로, 그리고 종료 시 파일 하나에 원자적으로 저장하고 기동 시 다시 읽습니다.
+ * - 기동 시 DB와 대조하여 빠진 프로필은 백그라운드로 채우고, 지워진 프로필은 묘비 처리합니다.
+ * - 묘비 비율이 compact-deleted-ratio를 넘으면 살아 있는 벡터만으로 인덱스를 다시 만들어 그래프와 파일이 계속 커지지 않게 합니다.
+ * - 인덱스를 바꾸는 작업은 모두 indexer 스레드 하나에서 실행하므로, 검색 스레드는 짧은 교체 순간에만 쓰기 잠금과 겹칩니다.
+ */
+@Service
+public class SemanticSearchService {
+
+    private static final int HNSW_M = 16;
+    private static final int HNSW_EF_CONSTRUCTION = 100;
+    private static final int BACKFILL_BATCH_SIZE = 100;
+    private static final int QUERY_CACHE_SIZE = 256;
+
+    private final RepositoryProfileRepository repositoryProfileRepository;
+    private final OllamaService ollamaService;
+    private final Path indexFile;
+    private final int efSearch;
+    private final double compactDeletedRatio;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "semantic-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private HnswIndex index;
+    private volatile boolean dirty;
+
+    // 같은 검색어의 임베딩 재계산 방지 (LRU)
+    private final Map<String, float[]> queryCache = new LinkedHashMap<>(QUERY_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+            return size() > QUERY_CACHE_SIZE;
+        }
+    };
+
+    public SemanticSearchService(RepositoryProfileRepository repositoryProfileRepository,
+                                 OllamaService ollamaService,
+                                 @Value("${semantic.index-dir:./data/semantic}") String indexDir,
+                                 @Value("${semantic.ef-search:128}") int efSearch,
+                                 @Value("${semantic.compact-deleted-ratio:0.2}") double compactDeletedRatio) {
+        this.repositoryProfileRepository = repositoryProfileRepository;
+        this.ollamaService = ollamaService;
+        this.indexFile = Path.of(indexDir, "semantic-index.bin");
+        this.efSearch = efSearch;
+        this.compactDeletedRatio = compactDeletedRatio;
+    }
+
+    /**
+     * 저장된 인덱스를 읽고 DB와 대조합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (Files.exists(indexFile)) {
+            try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                VectorStore store = VectorStore.readFrom(channel);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                HnswIndex loaded = HnswIndex.readFrom(store, in);
+                withWriteLock(() -> index = loaded);
+                System.out.println(">>> [의미 검색] 인덱스 로드 완료 (" + loaded.liveCount() + "개)");
+            } catch (Exception e) {
+                System.err.println(">>> [의미 검색] 인덱스 로드 실패, 새로 만듭니다: " + e.getMessage());
+            }
+        }
+        indexer.submit(this::reconcile);
+    }
+
+    /**
+     * 의미 검색: 검색어 임베딩과 가장 가까운 프로필 (유사도 순)
+     */
+    public List<RepositoryProfile> search(String query, int size) {
+        float[] vector;
+        synchronized (queryCache) {
+            vector = queryCache.get(query);
+        }
+        if (vector == null) {
+            float[] embedding = ollamaService.embed(query, GpuWork.interactive("semantic:" + query));
+            if (embedding == null) return List.of();
+            vector = VectorStore.normalize(embedding);
+            synchronized (queryCache) {
+                queryCache.put(query, vector);
+            }
+        }
+        float[] queryVector = vector;
+        return loadInOrder(withReadLock(() -> nearestIds(queryVector, size, -1)));
+    }
+
+    /**
+     * 관련 프로젝트: 해당 프로필 벡터와 가장 가까운 다른 프로필
+     */
+    public Optional<List<RepositoryProfile>> related(Long id, int size) {
+        List<Long> ids = withReadLock(() -> {
+            if (index == null) return null;
+            Integer slot = index.store().slotOf(id);
+            if (slot == null || index.isDeleted(slot)) return null;
+            return nearestIds(index.store().get(slot), size, slot);
+        });
+        return ids == null ? Optional.empty() : Optional.of(loadInOrder(ids));
+    }
+
+    /**
+     * 저장된 프로필을 커밋 이후 인덱싱합니다.
+     */
+    public void recordSaved(List<RepositoryProfile> profiles) {
+        afterCommit(() -> indexer.submit(() -> profiles.forEach(this::indexProfile)));
+    }
+
+    /**
+     * 삭제된 프로필을 결과에서 제외합니다.
+     */
+    public void recordDeleted(Long id) {
+        // 요청 스레드에서 쓰기 잠금을 기다리지 않도록 indexer 스레드로 넘김
+        afterCommit(() -> indexer.submit(() -> {
+            withWriteLock(() -> tombstone(id));
+            compactIfNeeded();
+        }));
+    }
+
+    /**
+     * 벌크 삭제(청소) 이후 DB와 다시 대조합니다.
+     */
+    public void recordBulkDeleted() {
+        afterCommit(() -> indexer.submit(this::reconcile));
+    }
+
+    /**
+     * 다른 노드가 프로필을 바꾼 뒤 DB와 다시 대조합니다.
+     */
+    public void recordForeignChange() {
+        afterCommit(() -> indexer.submit(this::reconcile));
+    }
+
+    @Scheduled(fixedDelayString = "${semantic.persist-interval-ms:300000}")
+    public void persistIfDirty() {
+        if (dirty) indexer.submit(this::persist);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+        if (dirty) persist();
+    }
+
+    private List<Long> nearestIds(float[] queryVector, int size, int excludeSlot) {
+        if (index == null) return List.of();
+        List<Long> ids = new ArrayList<>(size);
+        for (int slot : index.search(queryVector, size, efSearch, excludeSlot)) {
+            ids.add(index.store().idAt(slot));
+        }
+        return ids;
+    }
+
+    private List<RepositoryProfile> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, RepositoryProfile> byId = repositoryProfileRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(RepositoryProfile::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(profile -> profile != null).toList();
+    }
+
+    private void indexProfile(RepositoryProfile profile) {
+        if (profile.getId() == null) return;
+        boolean indexed = withReadLock(() -> {
+            if (index == null) return false;
+            Integer slot = index.store().slotOf(profile.getId());
+            return slot != null && !index.isDeleted(slot);
+        });
+        if (indexed) return;
+
+        float[] embedding;
+        try {
+            embedding = ollamaService.embed(embeddingText(profile), GpuWork.background("embed:" + profile.getRepoName()));
+        } catch (CancellationException | BackendCallException e) {
+            return;
+        }
+        if (embedding == null) return;
+
+        withWriteLock(() -> {
+            if (index != null && index.store().dimension() != embedding.length) {
+                System.err.println(">>> [의미 검색] 임베딩 차원이 바뀌어 인덱스를 새로 만듭니다.");
+                index = null;
+            }
+            if (index == null) index = new HnswIndex(new VectorStore(embedding.length), HNSW_M, HNSW_EF_CONSTRUCTION);
+            Integer previous = index.store().slotOf(profile.getId());
+            if (previous != null) index.markDeleted(previous);
+            index.insert(index.store().add(profile.getId(), embedding));
+            dirty = true;
+        });
+    }
+
+    /**
+     * DB에 없는 벡터는 묘비 처리하고, 벡터가 없는 프로필은 배치 단위로 임베딩합니다.
+     */
+    private void reconcile() {
+        Set<Long> existingIds = new HashSet<>(repositoryProfileRepository.findAllIds());
+        List<Long> missing = new ArrayList<>();
+        withWriteLock(() -> {
+            if (index != null) {
+                VectorStore store = index.store();
+                for (int slot = 0; slot < store.size(); slot++) {
+                    if (!index.isDeleted(slot) && !existingIds.contains(store.idAt(slot))) {
+                        index.markDeleted(slot);
+                        dirty = true;
+                    }
+                }
+            }
+            for (Long id : existingIds) {
+                Integer slot = index != null ? index.store().slotOf(id) : null;
+                if (slot == null || index.isDeleted(slot)) missing.add(id);
+            }
+        });
+        compactIfNeeded();
+        if (missing.isEmpty()) return;
+
+        System.out.println(">>> [의미 검색] 임베딩 백필 대상 " + missing.size() + "개");
+        for (int from = 0; from < missing.size() && !Thread.currentThread().isInterrupted(); from += BACKFILL_BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(from + BACKFILL_BATCH_SIZE, missing.size()));
+            repositoryProfileRepository.findAllById(batch).forEach(this::indexProfile);
+        }
+        persist();
+    }
+
+    /**
+     * 묘비 비율이 compact-deleted-ratio를 넘으면 살아 있는 벡터만으로 인덱스를 다시 만듭니다. (indexer 스레드에서 실행)
+     * 살아 있는 벡터만 읽기 잠금 안에서 복사하고, 그래프는 잠금 없이 만든 뒤 쓰기 잠금으로 교체만 합니다.
+     * 인덱스를 바꾸는 작업(추가/묘비/대조)은 모두 indexer 스레드에서만 일어나므로 그사이 빠지는 변경이 없습니다.
+     */
+    private void compactIfNeeded() {
+        HnswIndex current = index;
+        if (current == null || current.deletedRatio() <= compactDeletedRatio) return;
+
+        VectorStore live = withReadLock(current::liveVectors);
+        HnswIndex compacted = current.rebuild(live);
+        withWriteLock(() -> {
+            System.out.println(">>> [의미 검색] 묘비 정리: " + index.store().size() + " -> " + live.size() + "개 노드");
+            index = compacted;
+            dirty = true;
+        });
+    }
+
+    private void tombstone(Long id) {
+        if (index == null) return;
+        Integer slot = index.store().slotOf(id);
+        if (slot != null && !index.isDeleted(slot)) {
+            index.markDeleted(slot);
+            dirty = true;
+        }
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 rename으로 교체합니다. (저장 중 종료되어도 이전 파일 유지)
+     */
+    private void persist() {
+        lock.readLock().lock();
+        try {
+            if (index == null) return;
+            dirty = false;
+            Files.createDirectories(indexFile.getParent());
+            // 공유 볼륨에서 다른 노드의 저장과 겹치지 않도록 같은 디렉터리에 고유한 임시 파일을 만듦
+            Path tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName() + ".", ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    index.store().writeTo(channel);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                    index.writeTo(out);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+            System.out.println(">>> [의미 검색] 인덱스 저장 완료 (" + index.liveCount() + "개)");
+        } catch (Exception e) {
+            dirty = true;
+            System.err.println(">>> [의미 검색] 인덱스 저장 실패: " + e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String embeddingText(RepositoryProfile profile) {
+        String title = profile.getProjectTitle() != null ? profile.getProjectTitle() : profile.getRepoName();
+        String summary = profile.getTechStackSummary() != null ? profile.getTechStackSummary() : "";
+        return title + "\n" + summary;
+    }
+
+    private <T> T withReadLock(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.myproject.analyzerbackend.service;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 기동 모드(JVM / JVM+AOT / JVM+AppCDS / native)별 기동 시간과 RSS를 로그로 남깁니다.
+ * 모드별 수치 비교는 이 로그 한 줄로 합니다.
+ */
+@Component
+public class StartupReporter {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        String mode;
+        if (NativeDetector.inNativeImage()) {
+            mode = "native";
+        } else {
+            mode = AotDetector.useGeneratedArtifacts() ? "jvm+aot" : "jvm";
+            if (ManagementFactory.getRuntimeMXBean().getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"))) {
+                mode += "+appcds";
+            }
+        }
+
+        Duration sinceProcessStart = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()))
+                .orElse(null);
+
+        System.out.println(">>> [기동] 모드=" + mode
+                + ", 컨텍스트 준비 " + event.getTimeTaken().toMillis() + "ms"
+                + (sinceProcessStart != null ? ", 프로세스 시작부터 " + sinceProcessStart.toMillis() + "ms" : "")
+                + ", RSS " + readRssMegabytes() + "MB");
+    }
+
+    /**
+     * /proc/self/status의 VmRSS (리눅스 컨테이너 외에서는 -1)
+     */
+    private long readRssMegabytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                }
+            }
+        } catch (Exception ignored) {
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,152 @@
+package com.myproject.analyzerbackend.service;
+
+import com.myproject.analyzerbackend.domain.RepositoryProfile;
+import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import com.myproject.analyzerbackend.domain.TopicFacet;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사이드바 토픽 패싯(토픽별 개수 / 최신 시각)을 메모리에 유지합니다.
+ * 기동 시 테이블에서 한 번 집계하고, 이후에는 저장/삭제/청소 시점에 갱신합니다.
+ * 재집계는 새 맵을 만든 뒤 참조를 교체하므로 읽는 쪽은 비어 있거나 반쯤 채워진 목록을 보지 않습니다.
+ */
+@Service
+public class TopicFacetService {
+
+    // 사이드바 / 스냅샷 공통 정렬: 개수 내림차순, 같으면 토픽 이름순
+    static final Comparator<TopicFacet> FACET_ORDER = Comparator.comparingLong(TopicFacet::count).reversed()
+            .thenComparing(TopicFacet::topic);
+
+    private final RepositoryProfileRepository repositoryProfileRepository;
+
+    private volatile Map<String, TopicFacet> facets = new ConcurrentHashMap<>();
+
+    // 재집계 중에 들어온 저장/삭제의 토픽 (집계 쿼리와 겹친 변경은 교체 후 해당 토픽만 다시 집계)
+    private final Object rebuildLock = new Object();
+    private volatile Set<String> touchedDuringRebuild;
+
+    public TopicFacetService(RepositoryProfileRepository repositoryProfileRepository) {
+        this.repositoryProfileRepository = repositoryProfileRepository;
+    }
+
+    /**
+     * 테이블 전체를 집계하여 패싯을 다시 만듭니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Set<String> touched = ConcurrentHashMap.newKeySet();
+            touchedDuringRebuild = touched;
+            try {
+                Map<String, TopicFacet> rebuilt = new ConcurrentHashMap<>();
+                repositoryProfileRepository.aggregateTopicFacets().forEach(facet -> rebuilt.put(facet.topic(), facet));
+                facets = rebuilt;
+            } finally {
+                touchedDuringRebuild = null;
+            }
+            // 집계 쿼리와 겹친 변경은 이중 반영/누락 여부를 알 수 없으므로 해당 토픽만 다시 집계
+            touched.forEach(this::refreshTopic);
+        }
+        System.out.println(">>> [패싯] 토픽 " + facets.size() + "개 집계 완료.");
+    }
+
+    /**
+     * 개수 내림차순으로 정렬된 패싯 목록을 반환합니다.
+     */
+    public List<TopicFacet> getFacets() {
+        return facets.values().stream().sorted(FACET_ORDER).toList();
+    }
+
+    /**
+     * 토픽 이름 목록을 반환합니다. (기존 /topics 응답 형식)
+     */
+    public List<String> getTopics() {
+        return getFacets().stream().map(TopicFacet::topic).toList();
+    }
+
+    /**
+     * 저장된 프로필을 패싯에 반영합니다. (트랜잭션 커밋 이후)
+     */
+    public void recordSaved(List<RepositoryProfile> profiles) {
+        afterCommit(() -> profiles.forEach(this::applyInsert));
+    }
+
+    /**
+     * 삭제된 프로필을 패싯에서 제거합니다. (트랜잭션 커밋 이후)
+     */
+    public void recordDeleted(RepositoryProfile profile) {
+        afterCommit(() -> applyDelete(profile));
+    }
+
+    /**
+     * 벌크 삭제(청소) 이후 전체 패싯을 다시 집계합니다.
+     */
+    public void recordBulkDeleted() {
+        afterCommit(this::rebuild);
+    }
+
+    private void applyInsert(RepositoryProfile profile) {
+        String topic = profile.getTopic();
+        if (topic == null) return;
+        markTouched(topic);
+        LocalDateTime createdAt = profile.getCreatedAt();
+        facets.merge(topic, new TopicFacet(topic, 1, createdAt), (current, added) ->
+                new TopicFacet(topic, current.count() + 1, latest(current.latestCreatedAt(), createdAt)));
+    }
+
+    private void applyDelete(RepositoryProfile profile) {
+        String topic = profile.getTopic();
+        if (topic == null) return;
+        markTouched(topic);
+        TopicFacet updated = facets.computeIfPresent(topic, (key, current) ->
+                current.count() <= 1 ? null : new TopicFacet(topic, current.count() - 1, current.latestCreatedAt()));
+
+        // 가장 최신 항목이 지워졌다면 해당 토픽만 다시 집계
+        if (updated != null && updated.latestCreatedAt() != null
+                && updated.latestCreatedAt().equals(profile.getCreatedAt())) {
+            refreshTopic(topic);
+        }
+    }
+
+    private void refreshTopic(String topic) {
+        Map<String, TopicFacet> current = facets;
+        repositoryProfileRepository.aggregateTopicFacet(topic).ifPresentOrElse(
+                facet -> current.put(topic, facet),
+                () -> current.remove(topic));
+    }
+
+    private void markTouched(String topic) {
+        Set<String> touched = touchedDuringRebuild;
+        if (touched != null) touched.add(topic);
+    }
+
+    private LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
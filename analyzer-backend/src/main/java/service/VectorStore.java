@@ -0,0 +1,186 @@
+package com.myproject.analyzerbackend.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 임베딩 벡터를 힙 밖(direct buffer)에 연속된 float 배열로 보관합니다.
+ * 슬롯 번호 = 추가된 순서이며, HnswIndex는 슬롯 번호로 벡터를 참조합니다.
+ * 벡터는 추가 시 정규화하므로 내적 = 코사인 유사도입니다.
+ */
+class VectorStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimension;
+    private ByteBuffer buffer;
+    private FloatBuffer vectors;
+    private long[] ids;
+    private int size;
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    VectorStore(int dimension) {
+        this(dimension, INITIAL_CAPACITY);
+    }
+
+    private VectorStore(int dimension, int capacity) {
+        this.dimension = dimension;
+        this.buffer = allocate(capacity, dimension);
+        this.vectors = buffer.asFloatBuffer();
+        this.ids = new long[capacity];
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long idAt(int slot) {
+        return ids[slot];
+    }
+
+    Integer slotOf(long id) {
+        return slotById.get(id);
+    }
+
+    /**
+     * 벡터를 정규화하여 추가하고 슬롯 번호를 반환합니다.
+     */
+    int add(long id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("임베딩 차원 불일치: " + vector.length + " != " + dimension);
+        }
+        ensureCapacity(size + 1);
+        float norm = 0;
+        for (float v : vector) norm += v * v;
+        norm = (float) Math.sqrt(norm);
+        int base = size * dimension;
+        for (int i = 0; i < dimension; i++) {
+            vectors.put(base + i, norm > 0 ? vector[i] / norm : 0);
+        }
+        ids[size] = id;
+        slotById.put(id, size);
+        return size++;
+    }
+
+    float[] get(int slot) {
+        float[] vector = new float[dimension];
+        int base = slot * dimension;
+        for (int i = 0; i < dimension; i++) vector[i] = vectors.get(base + i);
+        return vector;
+    }
+
+    /**
+     * 정규화된 질의 벡터와 슬롯 벡터의 내적 (코사인 유사도)
+     */
+    float similarity(float[] query, int slot) {
+        int base = slot * dimension;
+        float dot = 0;
+        for (int i = 0; i < dimension; i++) dot += query[i] * vectors.get(base + i);
+        return dot;
+    }
+
+    float similarity(int a, int b) {
+        int baseA = a * dimension;
+        int baseB = b * dimension;
+        float dot = 0;
+        for (int i = 0; i < dimension; i++) dot += vectors.get(baseA + i) * vectors.get(baseB + i);
+        return dot;
+    }
+
+    static float[] normalize(float[] vector) {
+        float norm = 0;
+        for (float v : vector) norm += v * v;
+        norm = (float) Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) normalized[i] = norm > 0 ? vector[i] / norm : 0;
+        return normalized;
+    }
+
+    /**
+     * [차원][개수][id * 개수][float * 차원 * 개수] 형식으로 기록합니다.
+     */
+    void writeTo(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2 + Long.BYTES * size).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(dimension).putInt(size);
+        for (int i = 0; i < size; i++) header.putLong(ids[i]);
+        header.flip();
+        writeFully(channel, header);
+
+        ByteBuffer data = buffer.duplicate();
+        data.position(0).limit(byteLength(size));
+        writeFully(channel, data);
+    }
+
+    static VectorStore readFrom(FileChannel channel) throws IOException {
+        ByteBuffer counts = readFully(channel, Integer.BYTES * 2);
+        int dimension = counts.getInt();
+        int size = counts.getInt();
+
+        VectorStore store = new VectorStore(dimension, Math.max(INITIAL_CAPACITY, size));
+        ByteBuffer idBytes = readFully(channel, Long.BYTES * size);
+        for (int i = 0; i < size; i++) {
+            store.ids[i] = idBytes.getLong();
+            store.slotById.put(store.ids[i], i);
+        }
+
+        ByteBuffer data = store.buffer.duplicate();
+        data.position(0).limit(store.byteLength(size));
+        while (data.hasRemaining()) {
+            if (channel.read(data) < 0) throw new IOException("임베딩 파일이 잘렸습니다.");
+        }
+        store.size = size;
+        return store;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) return;
+        // 두 배로 늘리되 direct buffer 한도(int 바이트)를 넘지 않게 맞춤
+        long maxCapacity = Integer.MAX_VALUE / ((long) dimension * Float.BYTES);
+        int capacity = (int) Math.max(required, Math.min((long) ids.length * 2, maxCapacity));
+        ByteBuffer grown = allocate(capacity, dimension);
+        ByteBuffer old = buffer.duplicate();
+        old.position(0).limit(byteLength(size));
+        grown.put(old).clear();
+        buffer = grown;
+        vectors = grown.asFloatBuffer();
+        ids = Arrays.copyOf(ids, capacity);
+    }
+
+    /**
+     * 바이트 수는 long으로 계산합니다. (int로 곱하면 768차원 기준 수십만 개에서 넘침)
+     */
+    private static ByteBuffer allocate(int capacity, int dimension) {
+        long bytes = (long) capacity * dimension * Float.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("임베딩 저장 공간 한도 초과: " + capacity + "개 x " + dimension + "차원");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // 할당된 용량 이내이므로 int 범위 안에 있음
+    private int byteLength(int count) {
+        return (int) ((long) count * dimension * Float.BYTES);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) channel.write(source);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer target = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) throw new IOException("임베딩 파일이 잘렸습니다.");
+        }
+        return target.flip();
+    }
+}
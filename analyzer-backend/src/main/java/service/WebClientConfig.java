@@ -1,12 +1,18 @@
 package com.myproject.analyzerbackend.service;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value; // 1. Value 임포트
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
@@ -20,6 +26,9 @@ public class WebClientConfig {
     @Value("${COMFYUI_BASE_URL:http://localhost:8189}") 
     private String comfyuiBaseUrl;
 
+    @Value("${GITHUB_API_BASE_URL:https://api.github.com}")
+    private String githubBaseUrl;
+
     // 1. Ollama용 WebClient
     @Bean
     @Qualifier("ollamaWebClient")
@@ -38,12 +47,30 @@ public class WebClientConfig {
                 .build();
     }
     
-    // 3. GitHub API용 WebClient (이건 수정 없음)
+    // GitHub 호출이 공유하는 커넥션 풀 (keep-alive 재사용, 유휴 연결 정리)
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionProvider() {
+        return ConnectionProvider.builder("github")
+                .maxConnections(32)
+                .pendingAcquireMaxCount(256)
+                .pendingAcquireTimeout(Duration.ofSeconds(10))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .maxLifeTime(Duration.ofMinutes(5))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+    }
+
+    // 3. GitHub API용 WebClient (공유 커넥션 풀 + gzip)
      @Bean
      @Qualifier("githubWebClient")
-     public WebClient githubWebClient() {
+     public WebClient githubWebClient(ConnectionProvider githubConnectionProvider) {
+     HttpClient httpClient = HttpClient.create(githubConnectionProvider)
+             .compress(true)
+             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000);
+
      WebClient.Builder builder = WebClient.builder()
-     .baseUrl("https://api.github.com")
+     .baseUrl(githubBaseUrl) // 부하 테스트에서는 로컬 스텁 주소
+         .clientConnector(new ReactorClientHttpConnector(httpClient))
          .defaultHeader(HttpHeaders.ACCEPT, "application/vnd.github.v3+json");
 
      if (StringUtils.hasText(githubToken)) {
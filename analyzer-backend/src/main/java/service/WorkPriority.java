@@ -0,0 +1,20 @@
+package com.myproject.analyzerbackend.service;
+
+/**
+ * Ollama / ComfyUI 작업 우선순위 (rank가 작을수록 먼저 실행)
+ */
+public enum WorkPriority {
+    INTERACTIVE(0), // 사용자 즉시 분석
+    REGENERATE(1),  // 이미지 재생성
+    BACKGROUND(2);  // 스케줄러 크롤링 / 대량 가져오기
+
+    private final int rank;
+
+    WorkPriority(int rank) {
+        this.rank = rank;
+    }
+
+    public int rank() {
+        return rank;
+    }
+}
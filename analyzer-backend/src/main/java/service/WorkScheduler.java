@@ -0,0 +1,151 @@
+package com.myproject.analyzerbackend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntSupplier;
+
+/**
+ * 백엔드 하나(Ollama 또는 ComfyUI)의 실행 슬롯을 우선순위 순으로 나눠 줍니다.
+ * - 전체 슬롯 수와 우선순위별 동시 실행 상한을 둡니다. 전체 슬롯 수는 고정값 대신 BackendGuard의 현재 한도를 따를 수 있습니다.
+ * - 즉시 분석이 아닌 작업(재생성 + 백그라운드)은 합쳐서 전체 슬롯 - 1개까지만 실행하여 즉시 분석용 슬롯 1개를 항상 남깁니다.
+ *   (슬롯이 1개뿐이면 예약 없이 한 작업씩)
+ * - 오래 기다린 작업은 agingMillis마다 한 단계씩 우선순위가 올라갑니다. (기아 방지)
+ * - 대기 중인 작업은 태그로 취소할 수 있습니다. (실행 중인 작업은 끝까지 수행)
+ * 작업은 호출한 스레드에서 그대로 실행되며, 슬롯을 얻을 때까지 호출 스레드가 대기합니다.
+ */
+class WorkScheduler {
+
+    private final class Ticket {
+        final GpuWork work;
+        final long enqueuedAt = System.currentTimeMillis();
+        final long sequence = nextSequence++;
+        boolean cancelled;
+
+        Ticket(GpuWork work) {
+            this.work = work;
+        }
+
+        long effectiveRank(long now) {
+            long aged = agingMillis > 0 ? (now - enqueuedAt) / agingMillis : 0;
+            return work.priority().rank() - aged;
+        }
+    }
+
+    private final String name;
+    private final IntSupplier slots;
+    private final Map<WorkPriority, Integer> caps;
+    private final long agingMillis;
+
+    private final Map<WorkPriority, Integer> running = new EnumMap<>(WorkPriority.class);
+    private final List<Ticket> waiting = new ArrayList<>();
+    private int runningTotal;
+    private long nextSequence;
+
+    WorkScheduler(String name, int totalSlots, Map<WorkPriority, Integer> caps, long agingMillis) {
+        this(name, () -> totalSlots, caps, agingMillis);
+    }
+
+    /**
+     * @param slots 호출 시점의 전체 슬롯 수 (예: BackendGuard의 현재 동시 실행 한도, 1 미만이면 1)
+     */
+    WorkScheduler(String name, IntSupplier slots, Map<WorkPriority, Integer> caps, long agingMillis) {
+        this.name = name;
+        this.slots = slots;
+        this.caps = new EnumMap<>(WorkPriority.class);
+        this.caps.putAll(caps);
+        this.agingMillis = agingMillis;
+        for (WorkPriority priority : WorkPriority.values()) running.put(priority, 0);
+    }
+
+    <T> T execute(GpuWork work, Callable<T> task) throws Exception {
+        acquire(work);
+        try {
+            return task.call();
+        } finally {
+            release(work.priority());
+        }
+    }
+
+    /**
+     * 태그가 같은 대기 작업을 취소합니다.
+     * @return 취소된 작업 수
+     */
+    synchronized int cancel(String tag) {
+        int cancelled = 0;
+        for (Ticket ticket : waiting) {
+            if (!ticket.cancelled && tag.equals(ticket.work.tag())) {
+                ticket.cancelled = true;
+                cancelled++;
+            }
+        }
+        if (cancelled > 0) notifyAll();
+        return cancelled;
+    }
+
+    synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("slots", currentSlots());
+        stats.put("running", new EnumMap<>(running));
+        Map<WorkPriority, Integer> queued = new EnumMap<>(WorkPriority.class);
+        for (Ticket ticket : waiting) queued.merge(ticket.work.priority(), 1, Integer::sum);
+        stats.put("queued", queued);
+        return stats;
+    }
+
+    private synchronized void acquire(GpuWork work) throws InterruptedException {
+        Ticket ticket = new Ticket(work);
+        waiting.add(ticket);
+        try {
+            while (true) {
+                if (ticket.cancelled) {
+                    throw new CancellationException(name + " 대기 작업 취소됨: " + work.tag());
+                }
+                if (nextRunnable() == ticket) {
+                    waiting.remove(ticket);
+                    running.merge(work.priority(), 1, Integer::sum);
+                    runningTotal++;
+                    return;
+                }
+                wait();
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            waiting.remove(ticket);
+            notifyAll();
+            throw e;
+        }
+    }
+
+    private int currentSlots() {
+        return Math.max(1, slots.getAsInt());
+    }
+
+    private synchronized void release(WorkPriority priority) {
+        running.merge(priority, -1, Integer::sum);
+        runningTotal--;
+        notifyAll();
+    }
+
+    /**
+     * 빈 슬롯이 있을 때, 우선순위별 상한과 즉시 분석 예약에 걸리지 않은 작업 중 (나이 반영) 우선순위가 가장 높은 작업
+     */
+    private Ticket nextRunnable() {
+        int totalSlots = currentSlots();
+        if (runningTotal >= totalSlots) return null;
+        long now = System.currentTimeMillis();
+        boolean reserveFull = runningTotal - running.get(WorkPriority.INTERACTIVE) >= Math.max(1, totalSlots - 1);
+        return waiting.stream()
+                .filter(ticket -> !ticket.cancelled)
+                .filter(ticket -> running.get(ticket.work.priority()) < caps.getOrDefault(ticket.work.priority(), totalSlots))
+                .filter(ticket -> ticket.work.priority() == WorkPriority.INTERACTIVE || !reserveFull)
+                .min(Comparator.<Ticket>comparingLong(ticket -> ticket.effectiveRank(now))
+                        .thenComparingLong(ticket -> ticket.sequence))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.myproject.analyzerbackend.loadtest;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ComfyUI 스텁
+ * - /prompt: 작업 ID 발급, 완료 시각 = 지금 + 생성 시간 분포 샘플
+ * - /history/{id}: 완료 전에는 빈 객체, 완료 후 이미지 출력 정보
+ * - /view: 작은 PNG 바이트
+ */
+class ComfyUiStub extends StubServer {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private final Map<String, Long> completesAt = new ConcurrentHashMap<>();
+
+    ComfyUiStub(LatencyProfile submitLatency, LatencyProfile generationTime) throws IOException {
+        super("ComfyUI");
+
+        route("/prompt", submitLatency, exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            String promptId = UUID.randomUUID().toString();
+            completesAt.put(promptId, System.currentTimeMillis() + generationTime.sampleMillis());
+            respond(exchange, 200, "application/json", "{\"prompt_id\":\"" + promptId + "\",\"number\":1}");
+        });
+
+        route("/history/", new LatencyProfile(5, 20, 0), exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String promptId = path.substring("/history/".length());
+            Long doneAt = completesAt.get(promptId);
+            if (doneAt == null || System.currentTimeMillis() < doneAt) {
+                respond(exchange, 200, "application/json", "{}");
+                return;
+            }
+            respond(exchange, 200, "application/json", "{\"" + promptId + "\":{\"outputs\":{\"9\":{\"images\":["
+                    + "{\"filename\":\"" + promptId + ".png\",\"subfolder\":\"\",\"type\":\"output\"}]}}}}");
+        });
+
+        route("/view", new LatencyProfile(5, 20, 0), exchange -> respond(exchange, 200, "image/png", PNG));
+    }
+}
@@ -0,0 +1,51 @@
+package com.myproject.analyzerbackend.loadtest;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GitHub REST API 스텁
+ * - /search/repositories: 호출마다 새 저장소 5개 (전부 처음 보는 저장소라 파이프라인 전 구간을 탐)
+ * - /repos/{owner}/{repo}/readme: 지정 크기의 영어 README 원문
+ */
+class GitHubStub extends StubServer {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final byte[] readme;
+
+    GitHubStub(LatencyProfile searchLatency, LatencyProfile readmeLatency, int readmeBytes) throws IOException {
+        super("GitHub");
+        this.readme = buildReadme(readmeBytes);
+
+        route("/search/repositories", searchLatency, exchange -> {
+            String query = URLDecoder.decode(String.valueOf(exchange.getRequestURI().getRawQuery()), StandardCharsets.UTF_8);
+            StringBuilder items = new StringBuilder();
+            for (int i = 0; i < 5; i++) {
+                long id = sequence.incrementAndGet();
+                String name = "repo-" + id;
+                if (i > 0) items.append(',');
+                items.append("{\"id\":").append(id)
+                        .append(",\"name\":\"").append(name).append('"')
+                        .append(",\"html_url\":\"https://github.com/stub-owner/").append(name).append('"')
+                        .append(",\"description\":\"stub repository for ").append(query.replace("\"", "")).append('"')
+                        .append(",\"language\":\"Java\"")
+                        .append(",\"stargazers_count\":").append(1000 - i)
+                        .append(",\"owner\":{\"login\":\"stub-owner\",\"id\":1}}");
+            }
+            respond(exchange, 200, "application/json",
+                    "{\"total_count\":1000,\"incomplete_results\":false,\"items\":[" + items + "]}");
+        });
+
+        route("/repos/", readmeLatency, exchange -> respond(exchange, 200, "text/plain; charset=utf-8", readme));
+    }
+
+    private static byte[] buildReadme(int bytes) {
+        String paragraph = "This project provides a fast, modular toolkit for building developer tools. "
+                + "It ships a CLI, a web dashboard and a plugin API. ";
+        StringBuilder builder = new StringBuilder("# Stub Project\n\n");
+        while (builder.length() < bytes) builder.append(paragraph);
+        return builder.substring(0, bytes).getBytes(StandardCharsets.UTF_8);
+    }
+}
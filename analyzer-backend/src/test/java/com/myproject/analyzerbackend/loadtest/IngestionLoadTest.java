@@ -0,0 +1,219 @@
+package com.myproject.analyzerbackend.loadtest;
+
+import com.myproject.analyzerbackend.AnalyzerBackendApplication;
+import com.myproject.analyzerbackend.domain.RepositoryProfileRepository;
+import com.myproject.analyzerbackend.service.CrawlingService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 수집 파이프라인 부하 테스트 (GitHub / Ollama / ComfyUI 로컬 스텁 사용)
+ * - 크롤러 스레드 N개가 CrawlingService.analyzeRepositories를 반복 실행하고
+ * - 동시에 REST API(갤러리 / 필터 / 패싯 / 검색)를 일정 RPS로 호출하며
+ * - 처리량(repos/min), 구간 지연 백분위, DB 커넥션 사용량, 힙/GC를 기록합니다.
+ *
+ * 실행: ./gradlew loadTest -Dloadtest.duration-seconds=120 -Dloadtest.crawl-threads=4 -Dloadtest.rest-rps=50
+ * (SPRING_DATASOURCE_URL 등으로 지정한 PostgreSQL이 필요합니다. 일반 test 태스크에서는 제외됩니다.)
+ */
+@Tag("loadtest")
+@SpringBootTest(classes = AnalyzerBackendApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IngestionLoadTest {
+
+    private static final long DURATION_SECONDS = Long.getLong("loadtest.duration-seconds", 60);
+    private static final int CRAWL_THREADS = Integer.getInteger("loadtest.crawl-threads", 4);
+    private static final int REST_RPS = Integer.getInteger("loadtest.rest-rps", 50);
+
+    private static GitHubStub gitHubStub;
+    private static OllamaStub ollamaStub;
+    private static ComfyUiStub comfyUiStub;
+
+    @Autowired
+    private CrawlingService crawlingService;
+
+    @Autowired
+    private RepositoryProfileRepository repositoryProfileRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void stubBackends(DynamicPropertyRegistry registry) throws IOException {
+        gitHubStub = (GitHubStub) new GitHubStub(
+                LatencyProfile.fromSystemProperties("github-search", 150, 600, 0.01),
+                LatencyProfile.fromSystemProperties("github-readme", 80, 400, 0.01),
+                Integer.getInteger("loadtest.readme-bytes", 6000)).start();
+        ollamaStub = (OllamaStub) new OllamaStub(
+                LatencyProfile.fromSystemProperties("ollama-generate", 400, 2000, 0.02),
+                LatencyProfile.fromSystemProperties("ollama-embeddings", 30, 120, 0.0),
+                Integer.getInteger("loadtest.embedding-dimension", 768)).start();
+        comfyUiStub = (ComfyUiStub) new ComfyUiStub(
+                LatencyProfile.fromSystemProperties("comfyui-submit", 20, 100, 0.01),
+                LatencyProfile.fromSystemProperties("comfyui-generation", 3000, 8000, 0.0)).start();
+
+        registry.add("GITHUB_API_BASE_URL", gitHubStub::baseUrl);
+        registry.add("OLLAMA_BASE_URL", ollamaStub::baseUrl);
+        registry.add("COMFYUI_BASE_URL", comfyUiStub::baseUrl);
+        registry.add("semantic.index-dir", () -> createTempDir("loadtest-semantic"));
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        if (gitHubStub != null) gitHubStub.close();
+        if (ollamaStub != null) ollamaStub.close();
+        if (comfyUiStub != null) comfyUiStub.close();
+    }
+
+    @Test
+    void ingestionThroughputUnderLoad() throws Exception {
+        LatencyRecorder crawlTick = new LatencyRecorder("crawl tick");
+        List<LatencyRecorder> restRecorders = new ArrayList<>();
+        List<String> restPaths = List.of(
+                "/api/projects?page=0&size=20",
+                "/api/projects/filter?topic=Docker&page=0&size=20",
+                "/api/projects/topics/facets",
+                "/api/projects/search?keyword=stub&page=0&size=20");
+        for (String path : restPaths) restRecorders.add(new LatencyRecorder("GET " + path.substring(0, path.indexOf('?') > 0 ? path.indexOf('?') : path.length())));
+
+        long startCount = repositoryProfileRepository.count();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        AtomicInteger maxActiveConnections = new AtomicInteger();
+        AtomicInteger maxWaitingThreads = new AtomicInteger();
+        AtomicLong maxHeapUsed = new AtomicLong();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        ExecutorService crawlers = Executors.newFixedThreadPool(CRAWL_THREADS);
+        ScheduledExecutorService sampler = Executors.newScheduledThreadPool(1);
+        ScheduledExecutorService restDriver = Executors.newScheduledThreadPool(Math.max(4, REST_RPS / 10));
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        // 1. 리소스 샘플링 (200ms)
+        sampler.scheduleAtFixedRate(() -> {
+            if (primaryDataSource.getHikariPoolMXBean() != null) {
+                maxActiveConnections.accumulateAndGet(primaryDataSource.getHikariPoolMXBean().getActiveConnections(), Math::max);
+                maxWaitingThreads.accumulateAndGet(primaryDataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(), Math::max);
+            }
+            maxHeapUsed.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }, 0, 200, TimeUnit.MILLISECONDS);
+
+        // 2. REST 부하 (고정 RPS, 경로 무작위)
+        if (REST_RPS > 0) {
+            restDriver.scheduleAtFixedRate(() -> {
+                int pick = ThreadLocalRandom.current().nextInt(restPaths.size());
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + restPaths.get(pick)))
+                        .timeout(Duration.ofSeconds(10)).GET().build();
+                long start = System.nanoTime();
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> restRecorders.get(pick)
+                                .record(start, error == null && response.statusCode() < 400));
+            }, 0, 1_000_000 / REST_RPS, TimeUnit.MICROSECONDS);
+        }
+
+        // 3. 크롤링 부하
+        for (int i = 0; i < CRAWL_THREADS; i++) {
+            crawlers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    boolean success = true;
+                    try {
+                        crawlingService.analyzeRepositories();
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    crawlTick.record(start, success);
+                }
+            });
+        }
+
+        crawlers.shutdown();
+        crawlers.awaitTermination(DURATION_SECONDS + 600, TimeUnit.SECONDS);
+        restDriver.shutdownNow();
+        sampler.shutdownNow();
+        long elapsedMillis = TimeUnit.SECONDS.toMillis(DURATION_SECONDS) + Math.max(0, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deadline));
+
+        long ingested = repositoryProfileRepository.count() - startCount;
+        double reposPerMinute = ingested * 60_000.0 / elapsedMillis;
+
+        StringBuilder report = new StringBuilder();
+        report.append("===== 수집 파이프라인 부하 테스트 (").append(LocalDateTime.now()).append(") =====\n");
+        report.append(String.format("설정: %ds, 크롤러 %d, REST %d rps%n", DURATION_SECONDS, CRAWL_THREADS, REST_RPS));
+        report.append(String.format("처리량: %d개 저장, %.1f repos/min%n", ingested, reposPerMinute));
+        report.append(crawlTick.summary()).append('\n');
+        for (LatencyRecorder recorder : restRecorders) report.append(recorder.summary()).append('\n');
+        report.append("백엔드 구간 지연(BackendGuard): ").append(fetch(httpClient, "/api/projects/backends")).append('\n');
+        report.append("작업 큐: ").append(fetch(httpClient, "/api/projects/work-queue")).append('\n');
+        report.append("DB 풀(종료 시점): ").append(fetch(httpClient, "/api/projects/datasources")).append('\n');
+        report.append(String.format("primary DB 커넥션: 최대 사용 %d, 최대 대기 스레드 %d%n", maxActiveConnections.get(), maxWaitingThreads.get()));
+        report.append(String.format("힙: 최대 사용 %.1f MB / GC %d회, %d ms%n",
+                maxHeapUsed.get() / (1024.0 * 1024.0), gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore));
+        report.append(gitHubStub.summary()).append('\n');
+        report.append(ollamaStub.summary()).append('\n');
+        report.append(comfyUiStub.summary()).append('\n');
+
+        System.out.println(report);
+        Path reportDir = Path.of("build", "reports", "loadtest");
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("ingestion-" + System.currentTimeMillis() + ".txt"), report);
+    }
+
+    private String fetch(HttpClient httpClient, String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (Exception e) {
+            return "조회 실패: " + e.getMessage();
+        }
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTimeMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static String createTempDir(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix).toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.myproject.analyzerbackend.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 스텁 응답 지연 분포 (중앙값과 p99로 정한 로그 정규 분포) + 오류율
+ */
+record LatencyProfile(long medianMs, long p99Ms, double errorRate) {
+
+    private static final double Z_99 = 2.326;
+
+    /**
+     * 시스템 속성 loadtest.<name>.median-ms / p99-ms / error-rate 로 덮어쓸 수 있습니다.
+     */
+    static LatencyProfile fromSystemProperties(String name, long medianMs, long p99Ms, double errorRate) {
+        return new LatencyProfile(
+                Long.getLong("loadtest." + name + ".median-ms", medianMs),
+                Long.getLong("loadtest." + name + ".p99-ms", p99Ms),
+                Double.parseDouble(System.getProperty("loadtest." + name + ".error-rate", String.valueOf(errorRate))));
+    }
+
+    long sampleMillis() {
+        if (medianMs <= 0) return 0;
+        double sigma = p99Ms > medianMs ? Math.log((double) p99Ms / medianMs) / Z_99 : 0;
+        double sample = medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.round(sample);
+    }
+
+    boolean shouldFail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+}
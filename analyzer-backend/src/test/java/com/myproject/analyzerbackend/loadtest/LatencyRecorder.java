@@ -0,0 +1,46 @@
+package com.myproject.analyzerbackend.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 구간별 지연 기록 + 백분위 계산
+ */
+class LatencyRecorder {
+
+    private final String name;
+    private final List<Long> samplesMicros = Collections.synchronizedList(new ArrayList<>());
+    private long failures;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    void record(long startNanos, boolean success) {
+        samplesMicros.add((System.nanoTime() - startNanos) / 1000);
+        if (!success) {
+            synchronized (this) {
+                failures++;
+            }
+        }
+    }
+
+    String summary() {
+        List<Long> sorted;
+        synchronized (samplesMicros) {
+            sorted = new ArrayList<>(samplesMicros);
+        }
+        Collections.sort(sorted);
+        return String.format("%-22s n=%-6d fail=%-4d p50=%8.1fms p95=%8.1fms p99=%8.1fms max=%8.1fms",
+                name, sorted.size(), failures,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.isEmpty() ? 0.0 : sorted.get(sorted.size() - 1) / 1000.0);
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) return 0;
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1000.0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.myproject.analyzerbackend.loadtest;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ollama 스텁: /api/generate (고정 응답), /api/embeddings (무작위 벡터)
+ */
+class OllamaStub extends StubServer {
+
+    OllamaStub(LatencyProfile generateLatency, LatencyProfile embeddingLatency, int embeddingDimension) throws IOException {
+        super("Ollama");
+
+        route("/api/generate", generateLatency, exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, "application/json",
+                    "{\"model\":\"llama3\",\"response\":\"Stub Project - a glowing database server on a desk\",\"done\":true}");
+        });
+
+        route("/api/embeddings", embeddingLatency, exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            StringBuilder vector = new StringBuilder();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < embeddingDimension; i++) {
+                if (i > 0) vector.append(',');
+                vector.append(random.nextGaussian());
+            }
+            respond(exchange, 200, "application/json", "{\"embedding\":[" + vector + "]}");
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package com.myproject.analyzerbackend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BackendGuardTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private BackendGuard guard(int initialLimit, int minLimit, int maxLimit) {
+        return new BackendGuard("test", initialLimit, minLimit, maxLimit,
+                Duration.ofSeconds(1), Duration.ofSeconds(10), OPEN_DURATION, clock::get);
+    }
+
+    private String callTaking(BackendGuard guard, long millis) {
+        return guard.call(timeout -> {
+            clock.addAndGet(Duration.ofMillis(millis).toNanos());
+            return "ok";
+        });
+    }
+
+    private void failingCall(BackendGuard guard, RuntimeException error) {
+        assertThatThrownBy(() -> guard.call(timeout -> {
+            throw error;
+        })).isInstanceOf(BackendCallException.class);
+    }
+
+    private BackendCallException.Reason rejectionReason(BackendGuard guard) {
+        try {
+            callTaking(guard, 1);
+            return null;
+        } catch (BackendCallException e) {
+            return e.getReason();
+        }
+    }
+
+    @Test
+    void shedsCallsAboveTheLimit() {
+        BackendGuard guard = guard(1, 1, 1);
+
+        BackendCallException.Reason nested = guard.call(timeout -> rejectionReason(guard));
+
+        assertThat(nested).isEqualTo(BackendCallException.Reason.LIMIT_EXCEEDED);
+        assertThat(guard.stats().get("shed")).isEqualTo(1L);
+    }
+
+    @Test
+    void slowCallsShrinkTheLimitButNotBelowMinLimit() {
+        BackendGuard guard = guard(4, 2, 4);
+
+        callTaking(guard, 1);
+        for (int i = 0; i < 20; i++) callTaking(guard, 100);
+
+        assertThat(guard.stats().get("limit")).isEqualTo(2);
+    }
+
+    @Test
+    void minRttIsRebasedAfterTheWindow() {
+        BackendGuard guard = guard(4, 1, 4);
+
+        // 빠른 호출 하나 이후 느린 호출만 이어지면 처음에는 한도가 최소로 내려감
+        callTaking(guard, 1);
+        for (int i = 0; i < 10; i++) callTaking(guard, 100);
+        assertThat(guard.stats().get("limit")).isEqualTo(1);
+
+        // 빠른 호출이 든 구간과 그다음 1분 구간이 지나면 느린 호출의 지연이 새 기준이 되어 한도가 다시 오름
+        for (int i = 0; i < 1300; i++) callTaking(guard, 100);
+        assertThat(guard.stats().get("minRttMs")).isEqualTo(100L);
+        assertThat((int) guard.stats().get("limit")).isGreaterThan(1);
+    }
+
+    @Test
+    void opensOnFailuresAndClosesAfterASuccessfulProbe() {
+        BackendGuard guard = guard(4, 1, 4);
+
+        for (int i = 0; i < 10; i++) failingCall(guard, new IllegalStateException("down"));
+        assertThat(guard.stats().get("circuit")).isEqualTo("OPEN");
+        assertThat(rejectionReason(guard)).isEqualTo(BackendCallException.Reason.CIRCUIT_OPEN);
+
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        assertThat(guard.stats().get("circuit")).isEqualTo("HALF_OPEN");
+
+        // 시험 호출이 진행 중이면 다른 호출은 거절
+        BackendCallException.Reason duringProbe = guard.call(timeout -> rejectionReason(guard));
+        assertThat(duringProbe).isEqualTo(BackendCallException.Reason.CIRCUIT_OPEN);
+        assertThat(guard.stats().get("circuit")).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() {
+        BackendGuard guard = guard(4, 1, 4);
+
+        for (int i = 0; i < 10; i++) failingCall(guard, new IllegalStateException("down"));
+        clock.addAndGet(OPEN_DURATION.toNanos());
+        failingCall(guard, new IllegalStateException("still down"));
+
+        assertThat(guard.stats().get("circuit")).isEqualTo("OPEN");
+    }
+
+    @Test
+    void callsStartedBeforeOpeningDoNotCloseAHalfOpenCircuit() {
+        BackendGuard guard = guard(20, 1, 20);
+
+        guard.call(timeout -> {
+            for (int i = 0; i < 10; i++) failingCall(guard, new IllegalStateException("down"));
+            clock.addAndGet(OPEN_DURATION.toNanos());
+            assertThat(guard.stats().get("circuit")).isEqualTo("HALF_OPEN");
+            return "ok";
+        });
+
+        assertThat(guard.stats().get("circuit")).isEqualTo("HALF_OPEN");
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        BackendGuard guard = guard(4, 1, 4);
+
+        for (int i = 0; i < 10; i++) {
+            failingCall(guard, WebClientResponseException.create(404, "Not Found", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8));
+        }
+
+        assertThat(guard.stats().get("circuit")).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void rateLimitedForbiddenCountsAsFailure() {
+        BackendGuard guard = guard(4, 1, 4);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Remaining", "0");
+
+        for (int i = 0; i < 10; i++) {
+            failingCall(guard, WebClientResponseException.create(403, "Forbidden", headers, new byte[0], StandardCharsets.UTF_8));
+        }
+
+        assertThat(guard.stats().get("circuit")).isEqualTo("OPEN");
+    }
+}
@@ -0,0 +1,139 @@
+package com.myproject.analyzerbackend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+    private static final int COUNT = 1000;
+    private static final int K = 10;
+    private static final int EF = 64;
+
+    private final Random random = new Random(7);
+
+    private HnswIndex buildIndex() {
+        HnswIndex index = new HnswIndex(new VectorStore(DIMENSION), 16, 100);
+        for (int i = 0; i < COUNT; i++) {
+            index.insert(index.store().add(i, randomVector()));
+        }
+        return index;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) vector[i] = (float) random.nextGaussian();
+        return VectorStore.normalize(vector);
+    }
+
+    private List<Integer> bruteForce(HnswIndex index, float[] query, int k) {
+        return IntStream.range(0, index.store().size())
+                .filter(slot -> !index.isDeleted(slot))
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer slot) -> index.store().similarity(query, slot)).reversed())
+                .limit(k)
+                .toList();
+    }
+
+    @Test
+    void recallAgainstBruteForce() {
+        HnswIndex index = buildIndex();
+
+        int hits = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            Set<Integer> expected = new HashSet<>(bruteForce(index, query, K));
+            for (int slot : index.search(query, K, EF, -1)) {
+                if (expected.contains(slot)) hits++;
+            }
+        }
+
+        assertThat((double) hits / (queries * K)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void roundTripsThroughTheIndexFile(@TempDir Path dir) throws IOException {
+        HnswIndex index = buildIndex();
+        index.markDeleted(3);
+        Path file = dir.resolve("semantic-index.bin");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            index.store().writeTo(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            index.writeTo(out);
+            out.flush();
+        }
+        HnswIndex loaded;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            VectorStore store = VectorStore.readFrom(channel);
+            loaded = HnswIndex.readFrom(store, new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
+        }
+
+        assertThat(loaded.liveCount()).isEqualTo(index.liveCount());
+        assertThat(loaded.isDeleted(3)).isTrue();
+        assertThat(loaded.store().idAt(42)).isEqualTo(42L);
+        for (int q = 0; q < 10; q++) {
+            float[] query = randomVector();
+            assertThat(loaded.search(query, K, EF, -1)).isEqualTo(index.search(query, K, EF, -1));
+        }
+    }
+
+    @Test
+    void searchSkipsTombstonesAndStillReturnsK() {
+        HnswIndex index = buildIndex();
+        float[] query = randomVector();
+
+        // 가장 가까운 후보 ef개 전부를 지워도 k개를 채워야 함
+        List<Integer> nearest = bruteForce(index, query, EF);
+        nearest.forEach(index::markDeleted);
+
+        List<Integer> result = index.search(query, K, EF, -1);
+        assertThat(result).hasSize(K).doesNotContainAnyElementsOf(nearest);
+    }
+
+    @Test
+    void searchExcludesTheQuerySlot() {
+        HnswIndex index = buildIndex();
+
+        List<Integer> result = index.search(index.store().get(5), K, EF, 5);
+
+        assertThat(result).hasSize(K).doesNotContain(5);
+    }
+
+    @Test
+    void compactDropsTombstonesAndKeepsLiveVectors() {
+        HnswIndex index = buildIndex();
+        for (int slot = 0; slot < COUNT; slot += 2) index.markDeleted(slot);
+        assertThat(index.deletedRatio()).isEqualTo(0.5);
+
+        HnswIndex compacted = index.compact();
+
+        assertThat(compacted.store().size()).isEqualTo(COUNT / 2);
+        assertThat(compacted.deletedRatio()).isZero();
+        assertThat(compacted.store().slotOf(0)).isNull();
+        float[] query = randomVector();
+        List<Long> expectedIds = bruteForce(index, query, K).stream().map(slot -> index.store().idAt(slot)).toList();
+        List<Long> compactedIds = compacted.search(query, K, EF, -1).stream().map(slot -> compacted.store().idAt(slot)).toList();
+        assertThat(compactedIds).containsAnyElementsOf(expectedIds);
+        assertThat(compactedIds).allMatch(id -> id % 2 == 1);
+    }
+}
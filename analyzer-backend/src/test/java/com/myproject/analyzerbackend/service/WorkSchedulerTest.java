@@ -0,0 +1,102 @@
+package com.myproject.analyzerbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkSchedulerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final WorkScheduler scheduler = new WorkScheduler("test", 2, Map.of(
+            WorkPriority.INTERACTIVE, 2,
+            WorkPriority.REGENERATE, 1,
+            WorkPriority.BACKGROUND, 1), 0);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private Future<String> submitBlocking(GpuWork work) {
+        return executor.submit(() -> scheduler.execute(work, () -> {
+            release.await();
+            return work.tag();
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int count(String key, WorkPriority priority) {
+        return ((Map<WorkPriority, Integer>) scheduler.stats().get(key)).getOrDefault(priority, 0);
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void regenerateAndBackgroundTogetherLeaveAnInteractiveSlot() throws Exception {
+        Future<String> crawl = submitBlocking(GpuWork.background("crawl"));
+        awaitUntil(() -> count("running", WorkPriority.BACKGROUND) == 1);
+
+        // 재생성 상한(1)에는 여유가 있지만 비대화형 합계가 slots - 1에 도달해 대기
+        Future<String> regenerate = submitBlocking(GpuWork.regenerate(1L));
+        awaitUntil(() -> count("queued", WorkPriority.REGENERATE) == 1);
+
+        // 남은 슬롯은 즉시 분석이 바로 사용
+        String interactive = scheduler.execute(GpuWork.interactive("analyze"), () -> "analyze");
+        assertThat(interactive).isEqualTo("analyze");
+        assertThat(count("queued", WorkPriority.REGENERATE)).isEqualTo(1);
+
+        release.countDown();
+        assertThat(crawl.get(5, TimeUnit.SECONDS)).isEqualTo("crawl");
+        assertThat(regenerate.get(5, TimeUnit.SECONDS)).isEqualTo(GpuWork.regenerateTag(1L));
+    }
+
+    @Test
+    void slotCountFollowsTheSupplier() throws Exception {
+        AtomicInteger limit = new AtomicInteger(2);
+        WorkScheduler adaptive = new WorkScheduler("adaptive", limit::get, Map.of(), 0);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> adaptive.execute(GpuWork.interactive("first"), () -> {
+            firstStarted.countDown();
+            release.await();
+            return "first";
+        }));
+        firstStarted.await(5, TimeUnit.SECONDS);
+
+        // 한도가 1로 줄면 두 번째 작업은 첫 작업이 끝날 때까지 대기
+        limit.set(1);
+        Future<String> second = executor.submit(() -> adaptive.execute(GpuWork.interactive("second"), () -> "second"));
+        awaitUntil(() -> ((Map<?, ?>) adaptive.stats().get("queued")).get(WorkPriority.INTERACTIVE) != null);
+        assertThat(adaptive.stats().get("slots")).isEqualTo(1);
+        assertThat(second.isDone()).isFalse();
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    void singleSlotStillRunsBackgroundWork() throws Exception {
+        WorkScheduler single = new WorkScheduler("single", 1, Map.of(WorkPriority.BACKGROUND, 1), 0);
+
+        assertThat(single.execute(GpuWork.background("crawl"), () -> "crawl")).isEqualTo("crawl");
+    }
+}
@@ -1,6 +1,7 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import axios from 'axios';
 import RepoProfileItem from './RepoProfileItem.jsx';
+import { fetchSnapshot } from '../snapshot.js';
 import '../styles/RepoProfileList.css';
 
 const SORT_OPTIONS = [
@@ -51,6 +52,21 @@ function RepoProfileList({ searchKeyword, filterTopic, favorites, onToggleFavori
       params.topic = filterTopic;
     }
 
+    // 전체 목록 / 주제 필터의 기본 정렬은 정적 스냅샷을 먼저 읽음 (없는 페이지면 API로)
+    const isSnapshotable = apiUrl !== `${API_BASE_URL}/search` && httpMethod === 'get' && currentSort === SORT_OPTIONS[0].value;
+    if (isSnapshotable) {
+      const snapshotPath = filterTopic
+        ? `topics/${encodeURIComponent(filterTopic)}/page-${currentPage}.json`
+        : `projects/page-${currentPage}.json`;
+      const snapshot = await fetchSnapshot(snapshotPath);
+      if (snapshot) {
+        setProfiles(snapshot.content || []);
+        setTotalPages(snapshot.totalPages || 0);
+        setLoading(false);
+        return;
+      }
+    }
+
     try {
       let response;
       if (httpMethod === 'post') {
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react'; 
 import axios from 'axios'; 
 import '../styles/Sidebar.css'; 
+import { fetchSnapshot } from '../snapshot.js';
 
 function Sidebar({ onSearch, onFilter, activeFilter }) { 
   const [searchTerm, setSearchTerm] = useState('');
@@ -12,9 +13,12 @@ function Sidebar({ onSearch, onFilter, activeFilter }) {
   useEffect(() => {
     const fetchTopics = async () => {
       try {
-        const response = await axios.get('http://localhost:8080/api/projects/topics');
-        const fetchedTopics = response.data || [];
-        setTopics(fetchedTopics.filter(t => t !== 'On-Demand')); 
+        // 정적 스냅샷을 먼저 읽고, 없으면 API로
+        const snapshot = await fetchSnapshot('topics.json');
+        const fetchedTopics = Array.isArray(snapshot)
+          ? snapshot
+          : (await axios.get('http://localhost:8080/api/projects/topics/facets')).data || [];
+        setTopics(fetchedTopics.filter(t => t.topic !== 'On-Demand')); 
       } catch (err) {
         console.error("토픽 목록 로딩 에러:", err);
         setTopics([]); 
@@ -108,13 +112,13 @@ function Sidebar({ onSearch, onFilter, activeFilter }) {
           </li>
           
           {/* 4. 동적 토픽 목록 */}
-          {topics.map((topic) => (
+          {topics.map(({ topic, count }) => (
             <li key={topic}>
               <button
                 className={`filter-button ${activeFilter === topic ? 'active' : ''}`}
                 onClick={() => handleFilterClick(topic)}
               >
-                {topic}
+                {topic} ({count})
               </button>
             </li>
           ))}
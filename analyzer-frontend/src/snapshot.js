@@ -0,0 +1,13 @@
+import axios from 'axios';
+
+// 백엔드가 발행한 정적 갤러리 스냅샷 (nginx가 /snapshots/ 경로로 서빙)
+// 스냅샷이 없거나 읽기에 실패하면 null을 돌려주고, 호출하는 쪽에서 API로 대체합니다.
+export async function fetchSnapshot(path) {
+  try {
+    const response = await axios.get(`/snapshots/${path}`);
+    // 개발 서버의 SPA 대체(index.html)처럼 JSON이 아닌 응답은 무시
+    return response.data && typeof response.data === 'object' ? response.data : null;
+  } catch {
+    return null;
+  }
+}